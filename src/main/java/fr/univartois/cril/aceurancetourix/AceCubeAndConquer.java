@@ -0,0 +1,418 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import fr.univartois.cril.juniverse.core.UniverseAssumption;
+import fr.univartois.cril.juniverse.core.UniverseSolverResult;
+import problem.Problem;
+import variables.Variable;
+
+/**
+ * The AceCubeAndConquer splits the search space of a problem into cubes, by enumerating
+ * the assignments of its first decision variables, and solves these cubes in parallel.
+ * Each worker runs on its own replica of the solver, and solves the cubes it is given
+ * as assumptions.
+ * When a worker has no more cubes to solve, it steals the remaining cubes of the other
+ * workers.
+ *
+ * The problem is satisfiable as soon as one of the cubes is, and is unsatisfiable when
+ * all cubes have been refuted.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class AceCubeAndConquer {
+
+    /**
+     * The maximum number of cubes generated for a search.
+     * Only the first cube variables are used when the number of combinations of the
+     * values of all of them would exceed this limit.
+     */
+    public static final int MAX_NB_CUBES = 1 << 16;
+
+    /**
+     * The function used to create the replicas of the solver.
+     * Each call must return a new solver, in which the whole problem has been posted.
+     */
+    private final Supplier<? extends JUniverseAceProblemAdapter> replicaFactory;
+
+    /**
+     * The number of workers solving the cubes in parallel.
+     */
+    private final int nbWorkers;
+
+    /**
+     * The number of variables that are assigned in each cube.
+     */
+    private final int nbCubeVariables;
+
+    /**
+     * The replicas of the solver, one per worker.
+     * This list is replaced (and never modified) when a new search starts, so that it can
+     * be safely read by the threads interrupting the search.
+     */
+    private volatile List<JUniverseAceProblemAdapter> replicas;
+
+    /**
+     * Whether the search must stop, either because a solution has been found or because
+     * the search has been interrupted.
+     */
+    private final AtomicBoolean stopped;
+
+    /**
+     * The number of cubes that have been refuted.
+     */
+    private final AtomicInteger nbRefutedCubes;
+
+    /**
+     * The solution found by one of the workers, if any.
+     */
+    private final AtomicReference<Map<String, BigInteger>> solution;
+
+    /**
+     * The exchange used by the workers to share the nogoods they learn, if any.
+     */
+    private AceNogoodExchange nogoodExchange;
+
+    /**
+     * The number of cubes that have been generated.
+     */
+    private int nbCubes;
+
+    /**
+     * Creates a new AceCubeAndConquer.
+     *
+     * @param replicaFactory The function used to create the replicas of the solver.
+     *        Each call must return a new solver, in which the whole problem has been
+     *        posted.
+     * @param nbWorkers The number of workers solving the cubes in parallel.
+     * @param nbCubeVariables The (maximum) number of variables that are assigned in each
+     *        cube.
+     *
+     * @throws IllegalArgumentException If the number of workers is not positive, or the
+     *         number of cube variables is negative.
+     */
+    public AceCubeAndConquer(Supplier<? extends JUniverseAceProblemAdapter> replicaFactory,
+            int nbWorkers, int nbCubeVariables) {
+        if (nbWorkers <= 0) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        if (nbCubeVariables < 0) {
+            throw new IllegalArgumentException("The number of cube variables must be >= 0");
+        }
+        this.replicaFactory = replicaFactory;
+        this.nbWorkers = nbWorkers;
+        this.nbCubeVariables = nbCubeVariables;
+        this.replicas = List.of();
+        this.stopped = new AtomicBoolean();
+        this.nbRefutedCubes = new AtomicInteger();
+        this.solution = new AtomicReference<>();
+    }
+
+    /**
+     * Sets the exchange used by the workers to share the nogoods they learn.
+     * The replicas are registered in this exchange when they are built.
+     *
+     * @param nogoodExchange The exchange to use, or {@code null} to disable nogood
+     *        sharing.
+     */
+    public void setNogoodExchange(AceNogoodExchange nogoodExchange) {
+        this.nogoodExchange = nogoodExchange;
+    }
+
+    /**
+     * Solves the problem by solving all its cubes in parallel.
+     *
+     * @return The outcome of the search conducted by the workers.
+     */
+    public UniverseSolverResult solve() {
+        stopped.set(false);
+        nbRefutedCubes.set(0);
+        solution.set(null);
+
+        // The replicas are built sequentially, as building a problem is not thread-safe.
+        List<JUniverseAceProblemAdapter> built = new ArrayList<>(nbWorkers);
+        for (int i = 0; i < nbWorkers; i++) {
+            var replica = replicaFactory.get();
+            replica.getHead().buildProblemAndSolver();
+            if (nogoodExchange != null) {
+                nogoodExchange.register(replica);
+            }
+            built.add(replica);
+        }
+        replicas = List.copyOf(built);
+
+        // Generating the cubes, and distributing them among the workers.
+        var cubeVariables = selectCubeVariables(built.get(0).getHead().problem);
+        var cubes = generateCubes(cubeVariables);
+        nbCubes = cubes.size();
+        List<Deque<int[]>> queues = new ArrayList<>(nbWorkers);
+        for (int i = 0; i < nbWorkers; i++) {
+            queues.add(new ConcurrentLinkedDeque<>());
+        }
+        for (int i = 0; i < cubes.size(); i++) {
+            queues.get(i % nbWorkers).addLast(cubes.get(i));
+        }
+
+        // Solving the cubes in parallel.
+        String[] names = Arrays.stream(cubeVariables).map(Variable::id).toArray(String[]::new);
+        List<Callable<Void>> workers = new ArrayList<>(nbWorkers);
+        for (int i = 0; i < nbWorkers; i++) {
+            int id = i;
+            workers.add(() -> {
+                work(id, queues, names);
+                return null;
+            });
+        }
+        runWorkers(workers);
+
+        // Computing the global result.
+        if (solution.get() != null) {
+            return UniverseSolverResult.SATISFIABLE;
+        }
+        if (nbRefutedCubes.get() == nbCubes) {
+            return UniverseSolverResult.UNSATISFIABLE;
+        }
+        return UniverseSolverResult.UNKNOWN;
+    }
+
+    /**
+     * Runs the given workers, and waits for all of them to terminate.
+     *
+     * @param workers The workers to run.
+     */
+    private void runWorkers(List<Callable<Void>> workers) {
+        ExecutorService executor = Executors.newFixedThreadPool(nbWorkers);
+        try {
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+
+        } catch (InterruptedException e) {
+            interrupt();
+            Thread.currentThread().interrupt();
+
+        } catch (ExecutionException e) {
+            interrupt();
+            throw new IllegalStateException("A cube-and-conquer worker failed", e.getCause());
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Solves cubes until there are no more cubes to solve, or the search must stop.
+     *
+     * @param id The identifier of the worker.
+     * @param queues The queues of cubes of all the workers.
+     * @param names The names of the variables assigned in the cubes.
+     */
+    private void work(int id, List<Deque<int[]>> queues, String[] names) {
+        var replica = replicas.get(id);
+        boolean used = false;
+
+        for (int[] cube = nextCube(id, queues); (cube != null) && !stopped.get();
+                cube = nextCube(id, queues)) {
+            if (used) {
+                replica.reset();
+            }
+            used = true;
+
+            List<UniverseAssumption<BigInteger>> assumptions = new ArrayList<>(cube.length);
+            for (int i = 0; i < cube.length; i++) {
+                assumptions.add(
+                        new UniverseAssumption<>(names[i], true, BigInteger.valueOf(cube[i])));
+            }
+
+            if (stopped.get()) {
+                // The search has been stopped while the replica was being reset.
+                return;
+            }
+
+            // An interruption sent from now on is kept by the replica until its search
+            // starts, so that this search stops immediately.
+            var result = replica.solve(assumptions);
+            if (result == UniverseSolverResult.UNSATISFIABLE) {
+                nbRefutedCubes.incrementAndGet();
+
+            } else if ((result == UniverseSolverResult.SATISFIABLE)
+                    || (result == UniverseSolverResult.OPTIMUM_FOUND)) {
+                if (solution.compareAndSet(null, replica.mapSolution())) {
+                    interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives the next cube to be solved by a worker.
+     * The worker first consumes its own cubes, and then steals the cubes of the other
+     * workers, starting from the end of their queues.
+     *
+     * @param id The identifier of the worker.
+     * @param queues The queues of cubes of all the workers.
+     *
+     * @return The next cube to solve, or {@code null} if there is no more cube to solve.
+     */
+    private int[] nextCube(int id, List<Deque<int[]>> queues) {
+        var cube = queues.get(id).pollFirst();
+        for (int i = 1; (cube == null) && (i < nbWorkers); i++) {
+            cube = queues.get((id + i) % nbWorkers).pollLast();
+        }
+        return cube;
+    }
+
+    /**
+     * Selects the variables to assign in the cubes.
+     * The decision variables of the problem are considered first if there are some.
+     * Otherwise, the variables having the smallest domains are selected.
+     * The variables are selected so that there are at most {@link #MAX_NB_CUBES} cubes.
+     *
+     * @param problem The problem to split.
+     *
+     * @return The variables to assign in the cubes.
+     */
+    private Variable[] selectCubeVariables(Problem problem) {
+        Variable[] candidates;
+        var decision = problem.annotations.decision;
+        if ((decision != null) && (decision.length > 0)) {
+            candidates = Arrays.stream(decision).map(Variable.class::cast)
+                    .toArray(Variable[]::new);
+        } else {
+            candidates = problem.variables.clone();
+            Arrays.sort(candidates, Comparator.comparingInt((Variable x) -> x.dom.size())
+                    .thenComparingInt(x -> x.num));
+        }
+        int n = 0;
+        long nbCombinations = 1;
+        while ((n < Math.min(nbCubeVariables, candidates.length))
+                && (nbCombinations * candidates[n].dom.size() <= MAX_NB_CUBES)) {
+            nbCombinations *= candidates[n].dom.size();
+            n++;
+        }
+        return Arrays.copyOf(candidates, n);
+    }
+
+    /**
+     * Generates all the cubes for the given variables, i.e., all the combinations of
+     * their current values.
+     *
+     * @param variables The variables to assign in the cubes.
+     *
+     * @return The values of the variables in each cube.
+     */
+    private static List<int[]> generateCubes(Variable[] variables) {
+        List<int[]> cubes = new ArrayList<>();
+        int[] indexes = new int[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            indexes[i] = variables[i].dom.first();
+            if (indexes[i] < 0) {
+                // A domain is empty: there is no cube to solve.
+                return cubes;
+            }
+        }
+
+        while (true) {
+            int[] cube = new int[variables.length];
+            for (int i = 0; i < variables.length; i++) {
+                cube[i] = variables[i].dom.toVal(indexes[i]);
+            }
+            cubes.add(cube);
+
+            // Moving to the next combination of values.
+            int i = variables.length - 1;
+            while ((i >= 0) && (variables[i].dom.next(indexes[i]) < 0)) {
+                indexes[i] = variables[i].dom.first();
+                i--;
+            }
+            if (i < 0) {
+                return cubes;
+            }
+            indexes[i] = variables[i].dom.next(indexes[i]);
+        }
+    }
+
+    /**
+     * Interrupts the search conducted by all the workers.
+     */
+    public void interrupt() {
+        stopped.set(true);
+        for (var replica : replicas) {
+            replica.getHead().interruptSearch();
+        }
+    }
+
+    /**
+     * Gives the solution found by the workers.
+     *
+     * @return The mapping associating the name of each variable to its value in the
+     *         solution.
+     *
+     * @throws IllegalStateException If no solution has been found.
+     */
+    public Map<String, BigInteger> mapSolution() {
+        var sol = solution.get();
+        if (sol == null) {
+            throw new IllegalStateException("No solution found !");
+        }
+        return sol;
+    }
+
+    /**
+     * Gives the number of cubes generated during the last search.
+     *
+     * @return The number of cubes.
+     */
+    public int getNbCubes() {
+        return nbCubes;
+    }
+
+    /**
+     * Gives the number of cubes refuted during the last search.
+     *
+     * @return The number of refuted cubes.
+     */
+    public int getNbRefutedCubes() {
+        return nbRefutedCubes.get();
+    }
+
+}
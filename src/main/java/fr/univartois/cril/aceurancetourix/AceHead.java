@@ -22,17 +22,32 @@ package fr.univartois.cril.aceurancetourix;
 
 import static org.xcsp.common.Types.TypeFramework.COP;
 
+import java.lang.reflect.Array;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
 
+import org.xcsp.common.IVar.Var;
+import org.xcsp.common.Size;
 import org.xcsp.common.Types.TypeFramework;
+import org.xcsp.common.domains.Domains.Dom;
 import org.xcsp.modeler.entities.VarEntities.VarArray;
 
+import fr.univartois.cril.juniverse.core.UniverseContradictionException;
 import fr.univartois.cril.juniverse.core.UniverseSolverResult;
 import interfaces.Observers.ObserverOnConstruction;
 import main.Head;
@@ -42,6 +57,7 @@ import solver.AceBuilder;
 import solver.Assumption;
 import solver.Solver;
 import solver.Solver.Stopping;
+import variables.Domain;
 import variables.Variable;
 
 /**
@@ -72,6 +88,59 @@ public class AceHead extends Head {
      */
     private volatile boolean interrupted;
 
+    /**
+     * Boolean indicating if a search is currently running.
+     */
+    private boolean searching;
+
+    /**
+     * The time (in nanoseconds) at which the running search has been asked to stop.
+     */
+    private long interruptionTime;
+
+    /**
+     * The future to complete when the running search has actually stopped, if an
+     * interruption has been requested.
+     */
+    private CompletableFuture<AceSearchStop> pendingStop;
+
+    /**
+     * The reason for which the last search has stopped.
+     */
+    private volatile AceStopReason stopReason = AceStopReason.NOT_STARTED;
+
+    /**
+     * The maximum number of nodes to explore during a search.
+     */
+    private long nodeBudget = Long.MAX_VALUE;
+
+    /**
+     * The maximum number of wrong decisions to make during a search.
+     */
+    private long wrongDecisionBudget = Long.MAX_VALUE;
+
+    /**
+     * The maximum number of revisions to perform during a search.
+     */
+    private long propagationBudget = Long.MAX_VALUE;
+
+    /**
+     * The maximum growth (in bytes) of the used heap during a search.
+     */
+    private long memoryBudget = Long.MAX_VALUE;
+
+    /**
+     * The statistics of the solver at the beginning of the running search, used to
+     * measure the consumption of the budgets.
+     * They are the number of nodes, wrong decisions and revisions, and the used heap.
+     */
+    private final long[] budgetBaseline = new long[4];
+
+    /**
+     * The budget that has been exhausted during the running search, if any.
+     */
+    private volatile AceStopReason exhaustedBudget;
+
     /**
      * Boolean indicating if the problem is built or not.
      */
@@ -82,6 +151,24 @@ public class AceHead extends Head {
      */
     private boolean solverBuilt;
 
+    /**
+     * The thread building the problem when constraints are posted eagerly, if any.
+     */
+    private Thread modelBuilder;
+
+    /**
+     * The error that occurred while building the problem eagerly, if any.
+     */
+    private volatile Throwable modelBuilderFailure;
+
+    /**
+     * The values removed from the domains of the variables once the solver has been
+     * built, indexed by the variables.
+     * As ACE undoes all removals made at level 0 when it restores the problem, these
+     * removals are applied again before each search.
+     */
+    private final Map<Variable, IntPredicate> prunings = new LinkedHashMap<>();
+
     /**
      * Creates a new AceHead.
      */
@@ -107,15 +194,180 @@ public class AceHead extends Head {
      */
     @Override
     public boolean isTimeExpiredForCurrentInstance() {
-        return super.isTimeExpiredForCurrentInstance() || interrupted;
+        return super.isTimeExpiredForCurrentInstance() || interrupted || isBudgetExhausted();
 
     }
 
+    /**
+     * Checks whether one of the budgets of the running search is exhausted.
+     *
+     * @return Whether the search must stop because of its budgets.
+     */
+    private boolean isBudgetExhausted() {
+        if (exhaustedBudget != null) {
+            return true;
+        }
+        if (!searching) {
+            return false;
+        }
+        if (solver.stats.nNodes - budgetBaseline[0] >= nodeBudget) {
+            exhaustedBudget = AceStopReason.NODE_BUDGET;
+        } else if (solver.stats.nWrongDecisions - budgetBaseline[1] >= wrongDecisionBudget) {
+            exhaustedBudget = AceStopReason.WRONG_DECISION_BUDGET;
+        } else if (solver.stats.nRevisions() - budgetBaseline[2] >= propagationBudget) {
+            exhaustedBudget = AceStopReason.PROPAGATION_BUDGET;
+        } else if ((memoryBudget != Long.MAX_VALUE)
+                && (usedHeap() - budgetBaseline[3] >= memoryBudget)) {
+            exhaustedBudget = AceStopReason.MEMORY_BUDGET;
+        }
+        return exhaustedBudget != null;
+    }
+
+    /**
+     * Gives the size of the heap that is currently used.
+     *
+     * @return The used heap, in bytes.
+     */
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Sets the maximum number of nodes to explore during a search.
+     *
+     * @param budget The maximum number of nodes.
+     *
+     * @throws IllegalArgumentException If the budget is not positive.
+     */
+    public void setNodeBudget(long budget) {
+        nodeBudget = checkBudget(budget);
+    }
+
+    /**
+     * Sets the maximum number of wrong decisions to make during a search.
+     *
+     * @param budget The maximum number of wrong decisions.
+     *
+     * @throws IllegalArgumentException If the budget is not positive.
+     */
+    public void setWrongDecisionBudget(long budget) {
+        wrongDecisionBudget = checkBudget(budget);
+    }
+
+    /**
+     * Sets the maximum number of revisions to perform during a search.
+     *
+     * @param budget The maximum number of revisions.
+     *
+     * @throws IllegalArgumentException If the budget is not positive.
+     */
+    public void setPropagationBudget(long budget) {
+        propagationBudget = checkBudget(budget);
+    }
+
+    /**
+     * Sets the maximum growth of the used heap during a search.
+     *
+     * @param budget The maximum growth of the heap, in bytes.
+     *
+     * @throws IllegalArgumentException If the budget is not positive.
+     */
+    public void setMemoryBudget(long budget) {
+        memoryBudget = checkBudget(budget);
+    }
+
+    /**
+     * Checks that a budget is valid.
+     *
+     * @param budget The budget to check.
+     *
+     * @return The checked budget.
+     *
+     * @throws IllegalArgumentException If the budget is not positive.
+     */
+    private static long checkBudget(long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("A budget must be > 0");
+        }
+        return budget;
+    }
+
     /**
      * Interrupts the solver.
      */
     public void interruptSearch() {
+        interruptSearchAsync();
+    }
+
+    /**
+     * Asks the solver to stop its search.
+     * This method does not wait for the search to stop.
+     * If no search is running (in particular, while the problem is being built), the
+     * interruption is kept until the next search, which then stops immediately.
+     *
+     * @return A future completed when the interrupted search has actually stopped.
+     */
+    public synchronized CompletableFuture<AceSearchStop> interruptSearchAsync() {
+        if (pendingStop == null) {
+            interruptionTime = System.nanoTime();
+            pendingStop = new CompletableFuture<>();
+        }
         interrupted = true;
+        return pendingStop;
+    }
+
+    /**
+     * Gives the reason for which the last search has stopped.
+     *
+     * @return The reason for which the last search has stopped.
+     */
+    public AceStopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Notifies this head that a search is starting.
+     */
+    private synchronized void startSearch() {
+        budgetBaseline[0] = solver.stats.nNodes;
+        budgetBaseline[1] = solver.stats.nWrongDecisions;
+        budgetBaseline[2] = solver.stats.nRevisions();
+        budgetBaseline[3] = usedHeap();
+        exhaustedBudget = null;
+        searching = true;
+    }
+
+    /**
+     * Notifies this head that the running search has stopped, and completes the pending
+     * interruption, if any.
+     * An interruption requested before this method is called is thus consumed by the
+     * search that has just stopped.
+     */
+    private synchronized void endSearch() {
+        searching = false;
+        if (solver == null) {
+            stopReason = interrupted ? AceStopReason.INTERRUPTED : AceStopReason.COMPLETED;
+        } else if (solver.stopping == Stopping.FULL_EXPLORATION) {
+            stopReason = AceStopReason.COMPLETED;
+        } else if (solver.stopping == Stopping.REACHED_GOAL) {
+            stopReason = AceStopReason.SOLUTION_LIMIT;
+        } else if (interrupted) {
+            stopReason = AceStopReason.INTERRUPTED;
+        } else if (exhaustedBudget != null) {
+            stopReason = exhaustedBudget;
+        } else if (solver.stopping == Stopping.EXCEEDED_TIME) {
+            stopReason = AceStopReason.TIMEOUT;
+        } else {
+            stopReason = AceStopReason.COMPLETED;
+        }
+
+        if (pendingStop != null) {
+            var latency = Duration.ofNanos(System.nanoTime() - interruptionTime);
+            pendingStop.complete(new AceSearchStop(stopReason, latency));
+            pendingStop = null;
+        }
+        interrupted = false;
     }
 
     /**
@@ -136,10 +388,17 @@ public class AceHead extends Head {
      * @return The outcome of the search conducted by the solver.
      */
     public UniverseSolverResult isSatisfiable(List<Assumption> assumpts) {
-        interrupted = false;
         if (control.solving.enablePrepro || control.solving.enableSearch) {
             buildProblemAndSolver();
-            solver.solve(assumpts);
+            if (!restorePrunings()) {
+                return UniverseSolverResult.UNSATISFIABLE;
+            }
+            startSearch();
+            try {
+                solver.solve(assumpts);
+            } finally {
+                endSearch();
+            }
             boolean fullExploration = solver.stopping == Stopping.FULL_EXPLORATION;
             TypeFramework framework = solver.problem.framework;
             if (fullExploration) {
@@ -160,8 +419,138 @@ public class AceHead extends Head {
     }
 
     /**
+     * Starts building the problem right away, so that the variables and constraints
+     * added from now on are posted to ACE immediately rather than when the problem is
+     * solved.
+     * As ACE builds a problem within the constructor of {@link Problem}, this constructor
+     * is run by a dedicated thread, to which the variables and constraints are handed
+     * one at a time.
+     *
+     * @throws IllegalStateException If the problem is already being built.
+     */
+    public synchronized void startEagerConstruction() {
+        if (problemBuilt || (modelBuilder != null)) {
+            throw new IllegalStateException("The problem is already being built");
+        }
+        xcsp3.eager = true;
+        modelBuilder = new Thread(() -> {
+            try {
+                buildProblem(0);
+            } catch (RuntimeException | Error e) {
+                modelBuilderFailure = e;
+            }
+        }, "ace-model-builder");
+        modelBuilder.setDaemon(true);
+        modelBuilder.start();
+    }
+
+    /**
+     * Ends the eager construction of the problem, and waits for ACE to finish building
+     * the problem.
+     *
+     * @throws IllegalStateException If the construction of the problem failed.
+     */
+    private synchronized void endEagerConstruction() {
+        if (modelBuilder == null) {
+            return;
+        }
+        xcsp3.submit(AceXCSP3.END_OF_MODEL);
+        try {
+            modelBuilder.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building the problem", e);
+        }
+        modelBuilder = null;
+        if (modelBuilderFailure != null) {
+            throw new IllegalStateException("Could not build the problem", modelBuilderFailure);
+        }
+    }
+
+    /**
+     * Permanently removes values from the domain of a variable, once the solver has been
+     * built.
+     * The solver is first brought back to the root of the search, where the removal is
+     * recorded and propagated.
+     * The removal is applied again each time ACE restores the problem, so that it holds
+     * for all subsequent searches.
+     *
+     * @param x The variable to remove values from.
+     * @param toRemove The predicate identifying the values to remove.
      *
+     * @throws UniverseContradictionException If the domain of the variable becomes
+     *         empty (in which case it is left unchanged), or if the removal leads to a
+     *         contradiction.
      */
+    public void prune(Variable x, IntPredicate toRemove) {
+        if (!applyPrunings()) {
+            throw new UniverseContradictionException("The problem is inconsistent");
+        }
+
+        boolean empty = true;
+        for (int a = x.dom.first(); (a != -1) && empty; a = x.dom.next(a)) {
+            empty = toRemove.test(x.dom.toVal(a));
+        }
+        if (empty) {
+            throw new UniverseContradictionException(
+                    "The domain of " + x.id() + " has been wiped out");
+        }
+
+        prunings.merge(x, toRemove, IntPredicate::or);
+        if (!remove(x.dom, toRemove) || !solver.propagation.propagate()) {
+            throw new UniverseContradictionException(
+                    "Removing values from " + x.id() + " leads to a contradiction");
+        }
+    }
+
+    /**
+     * Applies again the removals made since the solver has been built, if any.
+     *
+     * @return Whether the problem is still consistent after these removals.
+     */
+    public boolean restorePrunings() {
+        return prunings.isEmpty() || applyPrunings();
+    }
+
+    /**
+     * Brings the solver back to the root of the search, restores the problem, and
+     * applies again the removals made since the solver has been built.
+     *
+     * @return Whether the problem is still consistent after these removals.
+     */
+    private boolean applyPrunings() {
+        solver.restoreProblem();
+        for (var pruning : prunings.entrySet()) {
+            if (!remove(pruning.getKey().dom, pruning.getValue())) {
+                return false;
+            }
+        }
+        return solver.propagation.propagate();
+    }
+
+    /**
+     * Removes values from a domain at the current level.
+     *
+     * @param dom The domain to remove values from.
+     * @param toRemove The predicate identifying the values to remove.
+     *
+     * @return Whether the domain is still non-empty after the removal.
+     */
+    private static boolean remove(Domain dom, IntPredicate toRemove) {
+        int sizeBefore = dom.size();
+        int[] removed = new int[sizeBefore];
+        int nbRemoved = 0;
+        for (int a = dom.first(); a != -1; a = dom.next(a)) {
+            if (toRemove.test(dom.toVal(a))) {
+                removed[nbRemoved++] = a;
+            }
+        }
+        for (int i = 0; i < nbRemoved; i++) {
+            dom.removeElementary(removed[i]);
+        }
+        return (dom.size() > 0) && dom.afterElementaryCalls(sizeBefore);
+    }
+
     protected void buildProblemAndSolver() {
         if (!problemBuilt) {
             structureSharing.clear();
@@ -186,6 +575,9 @@ public class AceHead extends Head {
      */
     @Override
     public Problem buildProblem(int i) {
+        if ((modelBuilder != null) && (Thread.currentThread() != modelBuilder)) {
+            endEagerConstruction();
+        }
         if (!problemBuilt) {
             getBuilder().getOptionsOptimizationBuilder().setReplaceObjVar(true);
             problem = new Problem(xcsp3, "", "", "", false, new String[0], this);
@@ -231,6 +623,54 @@ public class AceHead extends Head {
          */
         private List<Consumer<Problem>> constraintsToAdd;
 
+        /**
+         * The arrays of variables to be added to the solver.
+         */
+        private List<VariableArray> arraysToAdd;
+
+        /**
+         * The arrays of variables, identified by their prefix.
+         */
+        private Map<String, VariableArray> arrays;
+
+        /**
+         * The variables that have been added, indexed by their handle.
+         */
+        private List<Variable> handles;
+
+        /**
+         * The number of handles that have been given to the variables.
+         */
+        private int nbHandles;
+
+        /**
+         * The declared domains of the integer variables that are not built yet,
+         * identified by the name of the variables.
+         */
+        private Map<String, PendingDomain> pendingDomains;
+
+        /**
+         * Whether variables and constraints are posted as soon as they are added.
+         */
+        private boolean eager;
+
+        /**
+         * Whether the symmetries due to interchangeable variables must be broken once the
+         * model is complete.
+         */
+        private boolean symmetryBreaking;
+
+        /**
+         * The variables and constraints to post in eager mode, waiting to be taken by
+         * the thread building the problem.
+         */
+        private final BlockingQueue<FutureTask<Void>> toPost = new LinkedBlockingQueue<>();
+
+        /**
+         * The task notifying the end of the model in eager mode.
+         */
+        private static final FutureTask<Void> END_OF_MODEL = new FutureTask<>(() -> {}, null);
+
         /**
          * Creates a new AceXCSP3.
          *
@@ -241,6 +681,10 @@ public class AceHead extends Head {
             this.variables = new ArrayList<>();
             this.variablesToAdd = new HashMap<>();
             this.mapping = new HashMap<>();
+            this.arraysToAdd = new ArrayList<>();
+            this.arrays = new HashMap<>();
+            this.handles = new ArrayList<>();
+            this.pendingDomains = new HashMap<>();
             this.head = head;
         }
 
@@ -261,27 +705,297 @@ public class AceHead extends Head {
          */
         @Override
         public void model() {
-            variables.forEach(v -> {
-                Variable variable = variablesToAdd.get(v).apply(head.problem, v);
-                mapping.put(v, variable);
-            });
+            // Variables are built in the order of their handles.
+            var nextArray = arraysToAdd.iterator();
+            var array = nextArray.hasNext() ? nextArray.next() : null;
+            for (int i = 0; i <= variables.size(); i++) {
+                while ((array != null) && (array.position == i)) {
+                    array.build(head.problem, this);
+                    array = nextArray.hasNext() ? nextArray.next() : null;
+                }
+                if (i < variables.size()) {
+                    String v = variables.get(i);
+                    Variable variable = variablesToAdd.get(v).apply(head.problem, v);
+                    mapping.put(v, variable);
+                    handles.add(variable);
+                }
+            }
             constraintsToAdd.forEach(c -> c.accept(head.problem));
             variables.clear();
+            arraysToAdd.clear();
             constraintsToAdd.clear();
+            pendingDomains.clear();
+
+            // In eager mode, the model is posted as it arrives.
+            while (eager) {
+                try {
+                    var task = toPost.take();
+                    if (task == END_OF_MODEL) {
+                        eager = false;
+                    } else {
+                        task.run();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    eager = false;
+                }
+            }
+
+            if (symmetryBreaking) {
+                AceSymmetryBreaker.breakInterchangeability(head.problem);
+            }
+
             endVariables();
             endConstraints();
             endInstance();
         }
 
+        /**
+         * Sets whether the symmetries due to interchangeable variables must be broken once
+         * the model is complete, by posting lex-leader constraints.
+         *
+         * @param symmetryBreaking Whether symmetries must be broken.
+         */
+        public void setSymmetryBreaking(boolean symmetryBreaking) {
+            this.symmetryBreaking = symmetryBreaking;
+        }
+
+        /**
+         * Hands a task to the thread building the problem, and waits for its execution.
+         *
+         * @param task The task to execute.
+         *
+         * @throws IllegalStateException If the task could not be executed.
+         */
+        private void submit(FutureTask<Void> task) {
+            try {
+                toPost.put(task);
+                if (task != END_OF_MODEL) {
+                    task.get();
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while building the problem", e);
+
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new IllegalStateException("Could not build the problem", e.getCause());
+            }
+        }
+
         /**
          * Adds a variable to the solver.
          *
          * @param name The name of the variable.
          * @param v The function to invoke to add the variable.
+         *
+         * @return The handle of the variable.
          */
-        public void addVariableToAdd(String name, BiFunction<Problem, String, Variable> v) {
+        public int addVariableToAdd(String name, BiFunction<Problem, String, Variable> v) {
+            if (eager) {
+                submit(new FutureTask<>(() -> {
+                    Variable variable = v.apply(head.problem, name);
+                    mapping.put(name, variable);
+                    handles.add(variable);
+                }, null));
+                return nbHandles++;
+            }
             variablesToAdd.put(name, v);
             variables.add(name);
+            return nbHandles++;
+        }
+
+        /**
+         * Adds an integer variable to the solver, whose domain may be tightened by unary
+         * constraints until the variable is built.
+         *
+         * @param name The name of the variable.
+         * @param min The minimum value of the domain of the variable.
+         * @param max The maximum value of the domain of the variable.
+         *
+         * @return The handle of the variable.
+         */
+        public int addIntegerVariableToAdd(String name, int min, int max) {
+            return addIntegerVariableToAdd(name, new PendingDomain(min, max));
+        }
+
+        /**
+         * Adds an integer variable to the solver, whose domain may be tightened by unary
+         * constraints until the variable is built.
+         *
+         * @param name The name of the variable.
+         * @param values The values of the domain of the variable.
+         *
+         * @return The handle of the variable.
+         */
+        public int addIntegerVariableToAdd(String name, int[] values) {
+            return addIntegerVariableToAdd(name, new PendingDomain(values));
+        }
+
+        /**
+         * Adds an integer variable to the solver, whose domain may be tightened by unary
+         * constraints until the variable is built.
+         *
+         * @param name The name of the variable.
+         * @param dom The declared domain of the variable.
+         *
+         * @return The handle of the variable.
+         */
+        private int addIntegerVariableToAdd(String name, PendingDomain dom) {
+            if (!eager) {
+                pendingDomains.put(name, dom);
+            }
+            return addVariableToAdd(name, (p, s) -> {
+                var x = p.buildVarInteger(s, dom.toDom());
+                dom.removeHoles(x);
+                imp().varEntities.newVarAloneEntity(s, x, null);
+                return x;
+            });
+        }
+
+        /**
+         * Restricts the domain of a variable to the given values, as a unary support
+         * constraint or an instantiation would do.
+         * The domain is tightened immediately, before ACE builds its structures.
+         *
+         * @param name The name of the variable.
+         * @param values The values to keep.
+         *
+         * @return Whether the domain has been restricted, or {@code false} if the
+         *         variable is not known yet (the constraint must then be posted).
+         *
+         * @throws UniverseContradictionException If the domain becomes empty.
+         */
+        public boolean keepValues(String name, int[] values) {
+            int[] sorted = IntStream.of(values).sorted().distinct().toArray();
+            return restrict(name, sorted, true);
+        }
+
+        /**
+         * Removes the given values from the domain of a variable, as a unary conflict
+         * constraint would do.
+         * The domain is tightened immediately, before ACE builds its structures.
+         *
+         * @param name The name of the variable.
+         * @param values The values to remove.
+         *
+         * @return Whether the domain has been restricted, or {@code false} if the
+         *         variable is not known yet (the constraint must then be posted).
+         *
+         * @throws UniverseContradictionException If the domain becomes empty.
+         */
+        public boolean removeValues(String name, int[] values) {
+            int[] sorted = IntStream.of(values).sorted().distinct().toArray();
+            return restrict(name, sorted, false);
+        }
+
+        /**
+         * Restricts the domain of a variable.
+         *
+         * @param name The name of the variable.
+         * @param sorted The values to keep or remove, in increasing order.
+         * @param keep Whether the values must be kept (or removed).
+         *
+         * @return Whether the domain has been restricted.
+         *
+         * @throws UniverseContradictionException If the domain becomes empty.
+         * @throws IllegalArgumentException If the problem is built eagerly and there is
+         *         no variable with the given name.
+         */
+        private boolean restrict(String name, int[] sorted, boolean keep) {
+            if (eager) {
+                // The variable is already built: its domain is reduced at construction time.
+                // It is looked up by the builder thread, which is the only one that fills
+                // the mapping of the variables.
+                submit(new FutureTask<>(() -> {
+                    var x = findVariable(name);
+                    if (x == null) {
+                        throw new IllegalArgumentException("Unknown variable " + name);
+                    }
+                    IntPredicate removed = keep ? v -> Arrays.binarySearch(sorted, v) < 0
+                            : v -> Arrays.binarySearch(sorted, v) >= 0;
+                    boolean empty = true;
+                    for (int a = x.dom.first(); (a != -1) && empty; a = x.dom.next(a)) {
+                        empty = removed.test(x.dom.toVal(a));
+                    }
+                    if (empty) {
+                        throw new UniverseContradictionException(
+                                "The domain of " + name + " has been wiped out");
+                    }
+                    x.dom.removeValuesAtConstructionTime(removed::test);
+                }, null));
+                return true;
+            }
+
+            var dom = pendingDomains.get(name);
+            if (dom == null) {
+                return false;
+            }
+            if (keep) {
+                dom.keep(sorted);
+            } else {
+                dom.remove(sorted);
+            }
+            if (dom.isEmpty()) {
+                throw new UniverseContradictionException(
+                        "The domain of " + name + " has been wiped out");
+            }
+            return true;
+        }
+
+        /**
+         * Adds an array of integer variables to the solver.
+         * The variables of the array are given consecutive handles, following the
+         * row-major order of the array.
+         *
+         * @param prefix The name of the array.
+         * @param dims The sizes of the dimensions of the array.
+         * @param min The minimum value of the domains of the variables.
+         * @param max The maximum value of the domains of the variables.
+         *
+         * @return The handle of the first variable of the array.
+         */
+        public int addVariableArrayToAdd(String prefix, int[] dims, int min, int max) {
+            var array = new VariableArray(prefix, dims, min, max, nbHandles, variables.size());
+            if (eager) {
+                submit(new FutureTask<>(() -> {
+                    arrays.put(prefix, array);
+                    array.build(head.problem, this);
+                }, null));
+                nbHandles += array.flatVars.length;
+                return array.firstHandle;
+            }
+            arraysToAdd.add(array);
+            arrays.put(prefix, array);
+            nbHandles += array.flatVars.length;
+            return array.firstHandle;
+        }
+
+        /**
+         * Gives the variable with the given handle.
+         *
+         * @param handle The handle of the variable, i.e., its index in the order of
+         *        creation of the variables.
+         *
+         * @return The variable with the given handle.
+         */
+        public Variable getVariable(int handle) {
+            return handles.get(handle);
+        }
+
+        /**
+         * Gives all the variables that have been added, in the order of their handles.
+         *
+         * @return The variables that have been added.
+         */
+        public List<Variable> getVariables() {
+            return handles;
         }
 
         /**
@@ -292,7 +1006,27 @@ public class AceHead extends Head {
          * @return The variable with the given name.
          */
         public Variable getVariable(String name) {
-            return Objects.requireNonNull(mapping.get(name));
+            return Objects.requireNonNull(findVariable(name));
+        }
+
+        /**
+         * Looks for the variable with the given name.
+         *
+         * @param name The name of the variable.
+         *
+         * @return The variable with the given name, or {@code null} if there is no such
+         *         variable.
+         */
+        private Variable findVariable(String name) {
+            var variable = mapping.get(name);
+            int bracket = name.indexOf('[');
+            if ((variable == null) && (bracket > 0)) {
+                var array = arrays.get(name.substring(0, bracket));
+                if (array != null) {
+                    variable = array.getVariable(name, bracket);
+                }
+            }
+            return variable;
         }
 
         /**
@@ -303,14 +1037,281 @@ public class AceHead extends Head {
         public void addConstraintsToAdd(Consumer<Problem> c) {
             int group = JUniverseAceProblemAdapter.inGroup ? JUniverseAceProblemAdapter.currentGroup : 0;
 
-            this.constraintsToAdd.add(p -> {
+            Consumer<Problem> grouped = p -> {
                 int before = head.problem.features.collecting.constraints.size();
                 c.accept(p);
                 for (int i = before; i < head.problem.features.collecting.constraints.size(); i++) {
                     head.problem.features.collecting.constraints.get(i).group = group;
                 }
-            });
+            };
+            if (eager) {
+                submit(new FutureTask<>(() -> grouped.accept(head.problem), null));
+            } else {
+                this.constraintsToAdd.add(grouped);
+            }
         }
+
+        /**
+         * The PendingDomain is the declared domain of an integer variable that is not
+         * built yet.
+         * It is represented either as a range of values possibly containing a few holes,
+         * or as an array of values.
+         * This way, the storage of a range does not grow with its size until the variable
+         * is built, and ACE is given a range whenever possible.
+         */
+        private static final class PendingDomain {
+
+            /**
+             * The minimum value of the range, if the domain is a range.
+             */
+            private int min;
+
+            /**
+             * The maximum value of the range, if the domain is a range.
+             */
+            private int max;
+
+            /**
+             * The values removed from the range, in increasing order.
+             */
+            private int[] holes = new int[0];
+
+            /**
+             * The values of the domain, in increasing order, or {@code null} if the
+             * domain is a range.
+             */
+            private int[] values;
+
+            /**
+             * Creates a new PendingDomain representing a range of values.
+             *
+             * @param min The minimum value of the range.
+             * @param max The maximum value of the range.
+             */
+            private PendingDomain(int min, int max) {
+                this.min = min;
+                this.max = max;
+            }
+
+            /**
+             * Creates a new PendingDomain representing the given values.
+             *
+             * @param values The values of the domain.
+             */
+            private PendingDomain(int[] values) {
+                this.values = IntStream.of(values).sorted().distinct().toArray();
+            }
+
+            /**
+             * Checks whether this domain contains the given value.
+             *
+             * @param v The value to look for.
+             *
+             * @return Whether the value is in this domain.
+             */
+            private boolean contains(int v) {
+                if (values == null) {
+                    return (min <= v) && (v <= max) && (Arrays.binarySearch(holes, v) < 0);
+                }
+                return Arrays.binarySearch(values, v) >= 0;
+            }
+
+            /**
+             * Removes from this domain the values that are not in the given array.
+             *
+             * @param sorted The values to keep, in increasing order.
+             */
+            private void keep(int[] sorted) {
+                values = IntStream.of(sorted).filter(this::contains).toArray();
+                holes = new int[0];
+            }
+
+            /**
+             * Removes from this domain the values in the given array.
+             * A range remains a range, the removed values becoming holes in this range.
+             *
+             * @param sorted The values to remove, in increasing order.
+             */
+            private void remove(int[] sorted) {
+                if (values != null) {
+                    values = IntStream.of(values)
+                            .filter(v -> Arrays.binarySearch(sorted, v) < 0).toArray();
+                    return;
+                }
+                holes = IntStream.concat(IntStream.of(holes), IntStream.of(sorted))
+                        .filter(v -> (min <= v) && (v <= max)).sorted().distinct().toArray();
+
+                // Holes at the bounds of the range are removed by shrinking the range.
+                int first = 0;
+                while ((first < holes.length) && (holes[first] == min)) {
+                    first++;
+                    min++;
+                }
+                int last = holes.length - 1;
+                while ((last >= first) && (holes[last] == max)) {
+                    last--;
+                    max--;
+                }
+                holes = Arrays.copyOfRange(holes, first, last + 1);
+            }
+
+            /**
+             * Checks whether this domain is empty.
+             *
+             * @return Whether this domain is empty.
+             */
+            private boolean isEmpty() {
+                return (values == null) ? (min > max) : (values.length == 0);
+            }
+
+            /**
+             * Gives the XCSP3 representation of this domain, without its holes.
+             *
+             * @return The representation of this domain.
+             *
+             * @see #removeHoles(Variable)
+             */
+            private Dom toDom() {
+                return (values == null) ? new Dom(min, max) : new Dom(values);
+            }
+
+            /**
+             * Removes the holes of this domain from the domain of the variable built from
+             * its XCSP3 representation.
+             *
+             * @param x The variable built from this domain.
+             */
+            private void removeHoles(Variable x) {
+                if (holes.length > 0) {
+                    x.dom.removeValuesAtConstructionTime(v -> Arrays.binarySearch(holes, v) >= 0);
+                }
+            }
+
+        }
+
+        /**
+         * The VariableArray describes an array of integer variables sharing the same
+         * domain, which is built as a whole as an ACE array entity.
+         */
+        private static final class VariableArray {
+
+            /**
+             * The name of the array.
+             */
+            private final String prefix;
+
+            /**
+             * The sizes of the dimensions of the array.
+             */
+            private final int[] dims;
+
+            /**
+             * The domain of the variables.
+             */
+            private final Dom dom;
+
+            /**
+             * The handle of the first variable of the array.
+             */
+            private final int firstHandle;
+
+            /**
+             * The number of single variables added before this array.
+             */
+            private final int position;
+
+            /**
+             * The variables of the array, in row-major order.
+             */
+            private final Variable[] flatVars;
+
+            /**
+             * Creates a new VariableArray.
+             *
+             * @param prefix The name of the array.
+             * @param dims The sizes of the dimensions of the array.
+             * @param min The minimum value of the domains of the variables.
+             * @param max The maximum value of the domains of the variables.
+             * @param firstHandle The handle of the first variable of the array.
+             * @param position The number of single variables added before this array.
+             */
+            private VariableArray(String prefix, int[] dims, int min, int max,
+                    int firstHandle, int position) {
+                this.prefix = prefix;
+                this.dims = dims.clone();
+                this.dom = new Dom(min, max);
+                this.firstHandle = firstHandle;
+                this.position = position;
+                this.flatVars = new Variable[Arrays.stream(dims).reduce(1, Math::multiplyExact)];
+            }
+
+            /**
+             * Builds the variables of this array, and declares the array in ACE.
+             *
+             * @param problem The problem in which to build the variables.
+             * @param xcsp3 The instance to which the array belongs.
+             */
+            private void build(Problem problem, AceXCSP3 xcsp3) {
+                Object vars = Array.newInstance(Var.class, dims);
+                int[] indexes = new int[dims.length];
+                var name = new StringBuilder(prefix);
+                for (int k = 0; k < flatVars.length; k++) {
+                    name.setLength(prefix.length());
+                    Object row = vars;
+                    for (int d = 0; d < dims.length; d++) {
+                        name.append('[').append(indexes[d]).append(']');
+                        if (d < dims.length - 1) {
+                            row = Array.get(row, indexes[d]);
+                        }
+                    }
+                    flatVars[k] = problem.buildVarInteger(name.toString(), dom);
+                    Array.set(row, indexes[dims.length - 1], flatVars[k]);
+                    xcsp3.handles.add(flatVars[k]);
+
+                    // Moving to the next cell of the array.
+                    for (int d = dims.length - 1; (d >= 0) && (++indexes[d] == dims[d]); d--) {
+                        indexes[d] = 0;
+                    }
+                }
+                xcsp3.imp().varEntities.newVarArrayEntity(prefix, new Size() {
+                    {
+                        setLengths(dims);
+                    }
+                }, vars, null);
+            }
+
+            /**
+             * Gives the variable of this array having the given name.
+             *
+             * @param name The name of the variable, of the form {@code prefix[i][j]...}.
+             * @param bracket The index of the first bracket in the name.
+             *
+             * @return The variable, or {@code null} if the name does not identify a
+             *         variable of this array.
+             */
+            private Variable getVariable(String name, int bracket) {
+                int k = 0;
+                int start = bracket;
+                for (int d = 0; d < dims.length; d++) {
+                    int end = name.indexOf(']', start);
+                    if ((end < 0) || (name.charAt(start) != '[')) {
+                        return null;
+                    }
+                    int index = Integer.parseInt(name, start + 1, end, 10);
+                    if ((index < 0) || (index >= dims[d])) {
+                        return null;
+                    }
+                    k = k * dims[d] + index;
+                    start = end + 1;
+                }
+                if ((start != name.length()) || (flatVars[k] == null)) {
+                    return null;
+                }
+                return flatVars[k];
+            }
+
+        }
+
     }
 
 }
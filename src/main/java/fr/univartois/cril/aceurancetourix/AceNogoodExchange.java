@@ -0,0 +1,381 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import interfaces.Observers.ObserverOnRuns;
+import learning.NogoodReasoner;
+import solver.Decisions;
+import solver.Solver;
+import variables.Variable;
+
+/**
+ * The AceNogoodExchange allows replicas of the same problem to share the nogoods they
+ * learn.
+ * Nogoods are exported by a replica at the end of each of its runs, and are imported by
+ * the other replicas at the end of their own runs, i.e., when their search is back to
+ * the root of the search tree.
+ *
+ * The nogoods are stored in a bounded lock-free ring buffer, so that the replicas never
+ * wait for each other.
+ * When the buffer is full, the oldest nogoods are overwritten, and replicas that did not
+ * import them yet simply miss them.
+ *
+ * Only short nogoods are exchanged.
+ * As the nogoods recorded by ACE are reduced nld-nogoods, in which each decision appears
+ * at its own level, their LBD is equal to their size, so that a single size bound is
+ * used to filter them.
+ *
+ * Nogoods are only exchanged between replicas of satisfaction problems.
+ * In an optimization problem, a nogood may depend on the bound of the objective under
+ * which it has been learned, and may thus be unsound for a replica having a looser
+ * bound.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class AceNogoodExchange {
+
+    /**
+     * The method of ACE's {@link NogoodReasoner} used to record a nogood.
+     * ACE keeps this method private, so it is invoked reflectively.
+     */
+    private static final Method ADD_NOGOOD = findAddNogood();
+
+    /**
+     * The ring buffer storing the shared nogoods.
+     */
+    private final AtomicReferenceArray<SharedNogood> buffer;
+
+    /**
+     * The position at which the next nogood will be stored in the buffer.
+     * This position grows indefinitely, and is reduced modulo the capacity of the buffer.
+     */
+    private final AtomicLong head;
+
+    /**
+     * The maximum size of the nogoods that are shared.
+     */
+    private final int maxSize;
+
+    /**
+     * The number of replicas registered in this exchange.
+     */
+    private final AtomicInteger nbReplicas;
+
+    /**
+     * The number of nogoods exported by the replicas.
+     */
+    private final AtomicLong nbExported;
+
+    /**
+     * The number of nogoods imported by the replicas.
+     */
+    private final AtomicLong nbImported;
+
+    /**
+     * Creates a new AceNogoodExchange.
+     *
+     * @param capacity The maximum number of nogoods stored at the same time.
+     * @param maxSize The maximum size of the nogoods that are shared.
+     *
+     * @throws IllegalArgumentException If the capacity is not positive, or the maximum
+     *         size is less than 2.
+     */
+    public AceNogoodExchange(int capacity, int maxSize) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be > 0");
+        }
+        if (maxSize < 2) {
+            throw new IllegalArgumentException("The maximum size must be >= 2");
+        }
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.head = new AtomicLong();
+        this.maxSize = maxSize;
+        this.nbReplicas = new AtomicInteger();
+        this.nbExported = new AtomicLong();
+        this.nbImported = new AtomicLong();
+    }
+
+    /**
+     * Registers a replica in this exchange.
+     * The replica will export the nogoods it learns, and import those learned by the
+     * other replicas.
+     * If nogood recording is disabled in the replica, or if the replica solves an
+     * optimization problem, this method does nothing.
+     *
+     * @param replica The replica to register.
+     */
+    public void register(JUniverseAceProblemAdapter replica) {
+        Solver solver = replica.getHead().getSolver();
+        if ((solver.nogoodReasoner != null) && (solver.problem.optimizer == null)) {
+            solver.observersOnRuns.add(new Participant(nbReplicas.getAndIncrement(), solver));
+        }
+    }
+
+    /**
+     * Publishes a nogood in the buffer.
+     *
+     * @param nogood The nogood to publish.
+     */
+    private void publish(SharedNogood nogood) {
+        long position = head.getAndIncrement();
+        nogood.position = position;
+        buffer.set((int) (position % buffer.length()), nogood);
+        nbExported.incrementAndGet();
+    }
+
+    /**
+     * Gives the number of nogoods exported by the replicas.
+     *
+     * @return The number of exported nogoods.
+     */
+    public long getNbExported() {
+        return nbExported.get();
+    }
+
+    /**
+     * Gives the number of nogoods imported by the replicas.
+     *
+     * @return The number of imported nogoods.
+     */
+    public long getNbImported() {
+        return nbImported.get();
+    }
+
+    /**
+     * Looks up the method used by ACE to record a nogood.
+     *
+     * @return The method recording a nogood.
+     */
+    private static Method findAddNogood() {
+        try {
+            Method method = NogoodReasoner.class.getDeclaredMethod(
+                    "addNogood", int[].class, boolean.class);
+            method.setAccessible(true);
+            return method;
+
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot record nogoods in ACE", e);
+        }
+    }
+
+    /**
+     * The SharedNogood represents a nogood independently of the replica that learned
+     * it, i.e., by using the number of the variables and their values rather than
+     * ACE's internal encoding of decisions.
+     */
+    private static final class SharedNogood {
+
+        /**
+         * The identifier of the replica that learned this nogood.
+         */
+        private final int source;
+
+        /**
+         * The numbers of the variables appearing in this nogood.
+         */
+        private final int[] variables;
+
+        /**
+         * The values of the variables appearing in this nogood.
+         */
+        private final int[] values;
+
+        /**
+         * Whether each decision of this nogood is positive (i.e., an assignment) or
+         * negative (i.e., a refutation).
+         */
+        private final boolean[] positive;
+
+        /**
+         * The position of this nogood in the buffer.
+         */
+        private volatile long position;
+
+        /**
+         * Creates a new SharedNogood.
+         *
+         * @param source The identifier of the replica that learned the nogood.
+         * @param decisions The decisions of the nogood, as encoded by ACE.
+         * @param encoder The decisions of the replica that learned the nogood.
+         */
+        private SharedNogood(int source, int[] decisions, Decisions encoder) {
+            this.source = source;
+            this.variables = new int[decisions.length];
+            this.values = new int[decisions.length];
+            this.positive = new boolean[decisions.length];
+            for (int i = 0; i < decisions.length; i++) {
+                this.variables[i] = encoder.numIn(decisions[i]);
+                this.values[i] = encoder.valIn(decisions[i]);
+                this.positive[i] = decisions[i] > 0;
+            }
+            this.position = -1;
+        }
+
+    }
+
+    /**
+     * The Participant connects a replica to the exchange, by listening to the end of
+     * its runs.
+     */
+    private final class Participant implements ObserverOnRuns {
+
+        /**
+         * The identifier of the replica.
+         */
+        private final int id;
+
+        /**
+         * The solver of the replica.
+         */
+        private final Solver solver;
+
+        /**
+         * The position of the next nogood to import from the buffer.
+         */
+        private long cursor;
+
+        /**
+         * Creates a new Participant.
+         *
+         * @param id The identifier of the replica.
+         * @param solver The solver of the replica.
+         */
+        private Participant(int id, Solver solver) {
+            this.id = id;
+            this.solver = solver;
+            this.cursor = head.get();
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see interfaces.Observers.ObserverOnRuns#afterRun()
+         */
+        @Override
+        public void afterRun() {
+            exportNogoods();
+            importNogoods();
+        }
+
+        /**
+         * Exports the short nogoods learned during the last run.
+         * ACE records these nogoods at the end of each run, before notifying its
+         * observers.
+         */
+        private void exportNogoods() {
+            NogoodReasoner reasoner = solver.nogoodReasoner;
+            for (int i = reasoner.nPreviousNogoods; i < reasoner.nNogoods; i++) {
+                int[] decisions = reasoner.nogoods[i].decisions;
+                if (decisions.length <= maxSize) {
+                    publish(new SharedNogood(id, decisions, solver.decisions));
+                }
+            }
+        }
+
+        /**
+         * Imports the nogoods exported by the other replicas since the last import.
+         * The import stops at the first position that has been claimed but not written
+         * yet, so that the corresponding nogood is imported by the next import.
+         */
+        private void importNogoods() {
+            long end = head.get();
+            cursor = Math.max(cursor, end - buffer.length());
+            for (; cursor < end; cursor++) {
+                SharedNogood nogood = buffer.get((int) (cursor % buffer.length()));
+                if ((nogood == null) || (nogood.position < cursor)) {
+                    // The nogood is not written yet.
+                    break;
+                }
+                if ((nogood.position != cursor) || (nogood.source == id)) {
+                    // The nogood has been overwritten, or is ours.
+                    continue;
+                }
+                int[] decisions = encode(nogood);
+                if (decisions != null) {
+                    record(decisions);
+                }
+            }
+        }
+
+        /**
+         * Encodes a shared nogood into decisions of this replica.
+         *
+         * @param nogood The nogood to encode.
+         *
+         * @return The encoded decisions, or {@code null} if the nogood cannot be
+         *         watched in the current state of the replica.
+         */
+        private int[] encode(SharedNogood nogood) {
+            int[] decisions = new int[nogood.variables.length];
+            for (int i = 0; i < decisions.length; i++) {
+                Variable x = solver.problem.variables[nogood.variables[i]];
+                int a = x.dom.toIdxIfPresent(nogood.values[i]);
+                if (a < 0) {
+                    // The value has been removed at construction time.
+                    return null;
+                }
+                decisions[i] = nogood.positive[i] ? solver.decisions.positiveDecisionFor(x.num, a)
+                        : solver.decisions.negativeDecisionFor(x.num, a);
+            }
+
+            // ACE watches the last two decisions, which must not be decided yet.
+            for (int i = Math.max(0, decisions.length - 2); i < decisions.length; i++) {
+                if (solver.decisions.varIn(decisions[i]).assigned()) {
+                    return null;
+                }
+            }
+            return decisions;
+        }
+
+        /**
+         * Records a nogood in the replica.
+         *
+         * @param decisions The decisions of the nogood.
+         */
+        private void record(int[] decisions) {
+            NogoodReasoner reasoner = solver.nogoodReasoner;
+            if (reasoner.nNogoods >= reasoner.nogoods.length) {
+                return;
+            }
+            try {
+                ADD_NOGOOD.invoke(reasoner, decisions, false);
+                nbImported.incrementAndGet();
+
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot record nogoods in ACE", e);
+
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException("Cannot record nogoods in ACE", e.getCause());
+            }
+        }
+
+    }
+
+}
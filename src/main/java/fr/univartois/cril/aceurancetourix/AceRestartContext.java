@@ -0,0 +1,231 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.math.BigInteger;
+
+import solver.Solver;
+import variables.Variable;
+
+/**
+ * The AceRestartContext gives to an {@link AceRestartHook} a safe access to the solver
+ * between two runs.
+ * Domain reductions made through this context are applied at the current level of the
+ * search (i.e., the root level, or the level of the assumptions if any), and are
+ * propagated at the beginning of the next run.
+ *
+ * As ACE does not allow to post new constraints once the solver is built, level-0
+ * information must be expressed as domain reductions.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class AceRestartContext {
+
+    /**
+     * The smallest {@code int} value, as a {@link BigInteger}.
+     */
+    private static final BigInteger INT_MIN = BigInteger.valueOf(Integer.MIN_VALUE);
+
+    /**
+     * The largest {@code int} value, as a {@link BigInteger}.
+     */
+    private static final BigInteger INT_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+
+    /**
+     * The solver that is being modified.
+     */
+    private final JUniverseAceProblemAdapter adapter;
+
+    /**
+     * Whether a domain has been reduced through this context.
+     */
+    private boolean modified;
+
+    /**
+     * Whether a domain has been wiped out through this context.
+     */
+    private boolean contradiction;
+
+    /**
+     * Creates a new AceRestartContext.
+     *
+     * @param adapter The solver that is being modified.
+     */
+    AceRestartContext(JUniverseAceProblemAdapter adapter) {
+        this.adapter = adapter;
+    }
+
+    /**
+     * Gives ACE's solver, e.g., to tune its heuristics.
+     *
+     * @return The solver.
+     */
+    public Solver getSolver() {
+        return adapter.getHead().solver;
+    }
+
+    /**
+     * Gives the number of the run that has just ended.
+     *
+     * @return The number of the run.
+     */
+    public int getRun() {
+        return getSolver().restarter.numRun;
+    }
+
+    /**
+     * Gives the current depth of the search, which is the number of assumptions.
+     *
+     * @return The current depth.
+     */
+    public int getDepth() {
+        return getSolver().depth();
+    }
+
+    /**
+     * Gives the current minimum value of a variable.
+     *
+     * @param variable The name of the variable.
+     *
+     * @return The minimum value of the variable.
+     */
+    public BigInteger getMin(String variable) {
+        return BigInteger.valueOf(toVar(variable).dom.firstValue());
+    }
+
+    /**
+     * Gives the current maximum value of a variable.
+     *
+     * @param variable The name of the variable.
+     *
+     * @return The maximum value of the variable.
+     */
+    public BigInteger getMax(String variable) {
+        return BigInteger.valueOf(toVar(variable).dom.lastValue());
+    }
+
+    /**
+     * Removes a value from the domain of a variable.
+     *
+     * @param variable The name of the variable.
+     * @param value The value to remove.
+     *
+     * @return Whether the domain of the variable is still non-empty.
+     */
+    public boolean removeValue(String variable, BigInteger value) {
+        var x = toVar(variable);
+        if (value.bitLength() >= Integer.SIZE) {
+            // The value cannot be in the domain of the variable.
+            return !contradiction;
+        }
+        int v = value.intValue();
+        if (x.assigned()) {
+            return check(x.dom.firstValue() != v);
+        }
+        if (x.dom.containsValue(v)) {
+            modified = true;
+            return check(x.dom.removeValue(v));
+        }
+        return !contradiction;
+    }
+
+    /**
+     * Restricts the domain of a variable to the values in the given bounds.
+     *
+     * @param variable The name of the variable.
+     * @param min The minimum value to keep.
+     * @param max The maximum value to keep.
+     *
+     * @return Whether the domain of the variable is still non-empty.
+     */
+    public boolean tightenBounds(String variable, BigInteger min, BigInteger max) {
+        var x = toVar(variable);
+        int lb = clamp(min);
+        int ub = clamp(max);
+        if (x.assigned()) {
+            int v = x.dom.firstValue();
+            return check((lb <= v) && (v <= ub));
+        }
+        if ((x.dom.firstValue() < lb) || (x.dom.lastValue() > ub)) {
+            modified = true;
+            return check(x.dom.removeValuesLT(lb) && x.dom.removeValuesGT(ub));
+        }
+        return !contradiction;
+    }
+
+    /**
+     * Checks whether a contradiction has been detected through this context.
+     * In this case, the search space under the current assumptions is empty.
+     *
+     * @return Whether a contradiction has been detected.
+     */
+    public boolean isContradiction() {
+        return contradiction;
+    }
+
+    /**
+     * Checks whether a domain has been reduced through this context.
+     *
+     * @return Whether a domain has been reduced.
+     */
+    boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Converts a bound to an {@code int}, by clamping it to the range of {@code int}
+     * values (in which all the values of ACE's domains lie).
+     *
+     * @param bound The bound to convert.
+     *
+     * @return The converted bound.
+     */
+    private static int clamp(BigInteger bound) {
+        return bound.max(INT_MIN).min(INT_MAX).intValue();
+    }
+
+    /**
+     * Records the outcome of a domain reduction.
+     *
+     * @param consistent Whether the reduced domain is still non-empty.
+     *
+     * @return Whether no contradiction has been detected so far.
+     */
+    private boolean check(boolean consistent) {
+        contradiction |= !consistent;
+        return !contradiction;
+    }
+
+    /**
+     * Gives ACE's representation of a variable.
+     *
+     * @param variable The name of the variable.
+     *
+     * @return The variable with the given name.
+     */
+    private Variable toVar(String variable) {
+        return adapter.getHead().xcsp3.getVariable(variable);
+    }
+
+}
@@ -0,0 +1,44 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+/**
+ * The AceRestartHook is a callback invoked by the search thread of ACE each time a run
+ * ends, i.e., when the search is back to the root of the search tree.
+ * At this point, no propagation is in progress, so that the hook may safely modify the
+ * solver through the given {@link AceRestartContext}.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@FunctionalInterface
+public interface AceRestartHook {
+
+    /**
+     * Notifies this hook that a run of the solver has ended.
+     *
+     * @param context The context through which the solver may be modified.
+     */
+    void onRestart(AceRestartContext context);
+
+}
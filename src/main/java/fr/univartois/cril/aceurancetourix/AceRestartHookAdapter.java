@@ -0,0 +1,87 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import interfaces.Observers.ObserverOnRuns;
+import solver.Solver.Stopping;
+
+/**
+ * The AceRestartHookAdapter adapts an {@link AceRestartHook} to ACE's observers on runs.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+class AceRestartHookAdapter implements ObserverOnRuns {
+
+    /**
+     * The adapted hook.
+     */
+    private final AceRestartHook adaptee;
+
+    /**
+     * The solver on which the hook is invoked.
+     */
+    private final JUniverseAceProblemAdapter solver;
+
+    /**
+     * Creates a new AceRestartHookAdapter.
+     *
+     * @param adaptee The hook to adapt.
+     * @param solver The solver on which the hook is invoked.
+     */
+    public AceRestartHookAdapter(AceRestartHook adaptee, JUniverseAceProblemAdapter solver) {
+        this.adaptee = adaptee;
+        this.solver = solver;
+    }
+
+    /**
+     * Gives the adapted hook.
+     *
+     * @return The adapted hook.
+     */
+    public AceRestartHook getAdaptee() {
+        return adaptee;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see interfaces.Observers.ObserverOnRuns#afterRun()
+     */
+    @Override
+    public void afterRun() {
+        var context = new AceRestartContext(solver);
+        adaptee.onRestart(context);
+
+        var aceSolver = solver.getHead().solver;
+        if (context.isContradiction()) {
+            // There is no solution under the current assumptions.
+            aceSolver.stopping = Stopping.FULL_EXPLORATION;
+
+        } else if (context.isModified()) {
+            // The reductions must be propagated before the next run.
+            aceSolver.propagation.runAtNextRoot = true;
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.time.Duration;
+
+/**
+ * The AceSearchStop describes how the search of ACE has stopped after an interruption
+ * has been requested.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class AceSearchStop {
+
+    /**
+     * The reason for which the search has stopped.
+     */
+    private final AceStopReason reason;
+
+    /**
+     * The time elapsed between the interruption request and the actual end of the search.
+     */
+    private final Duration latency;
+
+    /**
+     * Creates a new AceSearchStop.
+     *
+     * @param reason The reason for which the search has stopped.
+     * @param latency The time elapsed between the interruption request and the actual
+     *        end of the search.
+     */
+    AceSearchStop(AceStopReason reason, Duration latency) {
+        this.reason = reason;
+        this.latency = latency;
+    }
+
+    /**
+     * Gives the reason for which the search has stopped.
+     * It may differ from {@link AceStopReason#INTERRUPTED} if the search has stopped for
+     * another reason before the interruption was noticed.
+     *
+     * @return The reason for which the search has stopped.
+     */
+    public AceStopReason getReason() {
+        return reason;
+    }
+
+    /**
+     * Gives the time elapsed between the interruption request and the actual end of the
+     * search.
+     *
+     * @return The latency of the interruption.
+     */
+    public Duration getLatency() {
+        return latency;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return reason + " (" + latency.toMillis() + " ms)";
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+/**
+ * The AceStopReason enumerates the reasons for which the search of ACE may stop.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public enum AceStopReason {
+
+    /**
+     * The search has not been run yet.
+     */
+    NOT_STARTED,
+
+    /**
+     * The whole search space has been explored.
+     */
+    COMPLETED,
+
+    /**
+     * The maximum number of solutions has been found.
+     */
+    SOLUTION_LIMIT,
+
+    /**
+     * The timeout of the solver has expired.
+     */
+    TIMEOUT,
+
+    /**
+     * The search has been interrupted by the user.
+     */
+    INTERRUPTED,
+
+    /**
+     * The maximum number of nodes has been explored.
+     */
+    NODE_BUDGET,
+
+    /**
+     * The maximum number of wrong decisions has been made.
+     */
+    WRONG_DECISION_BUDGET,
+
+    /**
+     * The maximum number of propagations (i.e., revisions) has been performed.
+     */
+    PROPAGATION_BUDGET,
+
+    /**
+     * The maximum growth of the heap has been reached.
+     */
+    MEMORY_BUDGET
+
+}
@@ -0,0 +1,283 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.xcsp.common.Constants;
+
+/**
+ * The AceSymbolicDictionary encodes the values of symbolic variables as integers, so
+ * that these variables can be represented by integer variables in ACE.
+ * The symbols of each variable are mapped to dense integers, in the order in which they
+ * are declared.
+ * Variables declared with the same symbols share the same encoding, so that tables
+ * over such variables are encoded only once.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class AceSymbolicDictionary {
+
+    /**
+     * The symbol representing any value in a symbolic tuple.
+     */
+    private static final String STAR = "*";
+
+    /**
+     * The encodings shared by the variables, indexed by their symbols.
+     */
+    private final Map<List<String>, Encoding> encodings = new HashMap<>();
+
+    /**
+     * The encoding of each symbolic variable, indexed by the identifier of the variables.
+     */
+    private final Map<String, Encoding> variables = new HashMap<>();
+
+    /**
+     * The tables that have already been encoded, indexed by their symbolic tuples and
+     * the encodings of the variables in their scope.
+     * The tuples are compared by identity, so that looking up a table never goes
+     * through all its tuples, and that the lookup is not affected if a table is
+     * modified after having been posted.
+     */
+    private final Map<List<List<String>>, Map<List<Encoding>, int[][]>> tables =
+            new IdentityHashMap<>();
+
+    /**
+     * Declares a new symbolic variable.
+     *
+     * @param variable The identifier of the variable.
+     * @param symbols The symbols in the domain of the variable.
+     *
+     * @return The number of values in the domain of the variable.
+     *
+     * @throws IllegalArgumentException If the variable has already been declared, or if
+     *         its domain is empty.
+     */
+    int declare(String variable, List<String> symbols) {
+        if (variables.containsKey(variable)) {
+            throw new IllegalArgumentException("Variable " + variable + " already exists");
+        }
+
+        List<String> distinct = symbols.stream().distinct().collect(Collectors.toList());
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("The domain of " + variable + " is empty");
+        }
+
+        var encoding = encodings.computeIfAbsent(distinct, Encoding::new);
+        variables.put(variable, encoding);
+        return encoding.symbols.length;
+    }
+
+    /**
+     * Checks whether a variable is symbolic.
+     *
+     * @param variable The identifier of the variable.
+     *
+     * @return Whether the variable has been declared as a symbolic variable.
+     */
+    boolean isSymbolic(String variable) {
+        return variables.containsKey(variable);
+    }
+
+    /**
+     * Encodes a symbol of a variable.
+     *
+     * @param variable The identifier of the variable.
+     * @param symbol The symbol to encode.
+     *
+     * @return The code of the symbol, or {@code -1} if the symbol is not in the domain of
+     *         the variable.
+     *
+     * @throws IllegalArgumentException If the variable is not symbolic.
+     */
+    int encode(String variable, String symbol) {
+        return encodingOf(variable).codes.getOrDefault(symbol, -1);
+    }
+
+    /**
+     * Encodes symbols of a variable.
+     * The symbols that are not in the domain of the variable are ignored.
+     *
+     * @param variable The identifier of the variable.
+     * @param symbols The symbols to encode.
+     *
+     * @return The codes of the symbols.
+     *
+     * @throws IllegalArgumentException If the variable is not symbolic.
+     */
+    int[] encode(String variable, List<String> symbols) {
+        var encoding = encodingOf(variable);
+        return symbols.stream().mapToInt(s -> encoding.codes.getOrDefault(s, -1))
+                .filter(c -> c >= 0).toArray();
+    }
+
+    /**
+     * Encodes a symbolic table.
+     * The tuples containing a symbol that is not in the domain of the corresponding
+     * variable are ignored, and the symbol {@code "*"} (or {@code null}) is encoded as
+     * {@link Constants#STAR_INT}.
+     * The encoded tables are cached until {@link #clearTables()} is invoked, so that a
+     * table appearing in several constraints over variables with the same symbols is
+     * encoded only once.
+     * The tuples must thus not be modified after having been posted, until the next
+     * invocation of {@link #clearTables()}.
+     *
+     * @param scope The identifiers of the variables in the scope of the table.
+     * @param tuples The symbolic tuples of the table.
+     *
+     * @return The encoded tuples.
+     *
+     * @throws IllegalArgumentException If a variable is not symbolic, or if a tuple does
+     *         not have as many values as there are variables in the scope.
+     */
+    int[][] encode(List<String> scope, List<List<String>> tuples) {
+        var scp = scope.stream().map(this::encodingOf).toArray(Encoding[]::new);
+        return tables.computeIfAbsent(tuples, k -> new HashMap<>())
+                .computeIfAbsent(Arrays.asList(scp), k -> encode(scp, tuples));
+    }
+
+    /**
+     * Forgets the tables that have been encoded so far, so that their symbolic tuples
+     * are no longer retained by this dictionary.
+     * This method is invoked before each solve, as the tables posted so far do not need
+     * to be encoded again.
+     */
+    void clearTables() {
+        tables.clear();
+    }
+
+    /**
+     * Encodes a symbolic table.
+     *
+     * @param scp The encodings of the variables in the scope of the table.
+     * @param tuples The symbolic tuples of the table.
+     *
+     * @return The encoded tuples.
+     */
+    private static int[][] encode(Encoding[] scp, List<List<String>> tuples) {
+        List<int[]> encoded = new ArrayList<>(tuples.size());
+        for (var tuple : tuples) {
+            if (tuple.size() != scp.length) {
+                throw new IllegalArgumentException("Tuple " + tuple + " does not match a scope of "
+                        + scp.length + " variables");
+            }
+
+            int[] t = new int[scp.length];
+            boolean valid = true;
+            for (int i = 0; valid && (i < t.length); i++) {
+                String symbol = tuple.get(i);
+                if ((symbol == null) || STAR.equals(symbol)) {
+                    t[i] = Constants.STAR_INT;
+                } else {
+                    t[i] = scp[i].codes.getOrDefault(symbol, -1);
+                    valid = t[i] >= 0;
+                }
+            }
+
+            if (valid) {
+                encoded.add(t);
+            }
+        }
+        return encoded.toArray(new int[encoded.size()][]);
+    }
+
+    /**
+     * Decodes a value of a variable.
+     *
+     * @param variable The identifier of the variable.
+     * @param code The code of the value.
+     *
+     * @return The symbol corresponding to the code.
+     *
+     * @throws IllegalArgumentException If the variable is not symbolic.
+     */
+    String decode(String variable, int code) {
+        return encodingOf(variable).symbols[code];
+    }
+
+    /**
+     * Gives the identifiers of the symbolic variables.
+     *
+     * @return The identifiers of the symbolic variables.
+     */
+    Iterable<String> variables() {
+        return variables.keySet();
+    }
+
+    /**
+     * Gives the encoding of a symbolic variable.
+     *
+     * @param variable The identifier of the variable.
+     *
+     * @return The encoding of the variable.
+     *
+     * @throws IllegalArgumentException If the variable is not symbolic.
+     */
+    private Encoding encodingOf(String variable) {
+        var encoding = variables.get(variable);
+        if (encoding == null) {
+            throw new IllegalArgumentException("Variable " + variable + " is not symbolic");
+        }
+        return encoding;
+    }
+
+    /**
+     * The Encoding maps the symbols of a domain to dense integers, and conversely.
+     * As encodings are shared, they are compared by identity.
+     */
+    private static final class Encoding {
+
+        /**
+         * The symbols of the domain, indexed by their code.
+         */
+        private final String[] symbols;
+
+        /**
+         * The codes of the symbols of the domain.
+         */
+        private final Map<String, Integer> codes;
+
+        /**
+         * Creates a new Encoding.
+         *
+         * @param symbols The (distinct) symbols of the domain.
+         */
+        private Encoding(List<String> symbols) {
+            this.symbols = symbols.toArray(new String[symbols.size()]);
+            this.codes = new HashMap<>();
+            for (int i = 0; i < this.symbols.length; i++) {
+                codes.put(this.symbols[i], i);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,366 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.xcsp.common.IVar.Var;
+import org.xcsp.common.Types.TypeOperatorRel;
+
+import constraints.Constraint;
+import constraints.ConstraintExtension;
+import constraints.ConstraintIntension;
+import problem.Problem;
+import variables.Domain;
+import variables.Variable;
+
+/**
+ * The AceSymmetryBreaker detects interchangeable variables in a problem being built,
+ * and breaks the corresponding symmetries by posting lex-leader constraints.
+ * Two variables are interchangeable when they have the same current domain, and
+ * swapping them maps the set of constraints of the problem onto itself.
+ * As in ACE's own symmetry detection, constraints are colored by their key, and the
+ * positions of their scope by their symmetry matching.
+ * However, the key of a constraint only identifies its relation when it encodes all its
+ * parameters, which is not the case for the constraints that do not define their key
+ * explicitly (the key then defaults to the signature of the constraint, from which
+ * constants are missing).
+ * Each of these constraints thus gets its own color, so that the variables it involves
+ * are never considered interchangeable through it.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class AceSymmetryBreaker {
+
+    /**
+     * The problem in which symmetries are detected.
+     */
+    private final Problem problem;
+
+    /**
+     * The constraints of the problem.
+     */
+    private final List<Constraint> constraints;
+
+    /**
+     * The constraints of the problem involving each variable, indexed by the number of
+     * the variables.
+     */
+    private final List<List<Constraint>> involving;
+
+    /**
+     * The canonical forms of the constraints of the problem, with their number of
+     * occurrences.
+     */
+    private final Map<CanonicalForm, Integer> forms = new HashMap<>();
+
+    /**
+     * The representative of the class of interchangeable variables of each variable,
+     * indexed by the number of the variables.
+     */
+    private final int[] parent;
+
+    /**
+     * Creates a new AceSymmetryBreaker.
+     *
+     * @param problem The problem in which symmetries are detected.
+     */
+    private AceSymmetryBreaker(Problem problem) {
+        this.problem = problem;
+        this.constraints = new ArrayList<>(problem.features.collecting.constraints);
+        if ((problem.optimizer != null) && (problem.optimizer.ctr instanceof Constraint)
+                && !constraints.contains(problem.optimizer.ctr)) {
+            // The objective must also be preserved by the symmetries.
+            constraints.add((Constraint) problem.optimizer.ctr);
+        }
+
+        int n = problem.features.collecting.variables.size();
+        this.involving = new ArrayList<>(n);
+        this.parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            involving.add(new ArrayList<>());
+            parent[i] = i;
+        }
+        for (var c : constraints) {
+            forms.merge(new CanonicalForm(c, -1, -1), 1, Integer::sum);
+            for (var x : c.scp) {
+                var l = involving.get(x.num);
+                if (l.isEmpty() || (l.get(l.size() - 1) != c)) {
+                    l.add(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Detects the interchangeable variables of a problem, and posts constraints
+     * ordering the variables of each class of interchangeable variables.
+     *
+     * @param problem The problem being built.
+     *
+     * @return The number of posted constraints.
+     */
+    static int breakInterchangeability(Problem problem) {
+        var breaker = new AceSymmetryBreaker(problem);
+        var classes = breaker.computeClasses();
+        for (var c : classes) {
+            var rows = c.stream().map(x -> new Var[] { (Var) x }).toArray(Var[][]::new);
+            problem.lex(rows, TypeOperatorRel.LE);
+        }
+        return classes.size();
+    }
+
+    /**
+     * Computes the classes of interchangeable variables.
+     *
+     * @return The classes containing at least two variables.
+     */
+    private List<List<Variable>> computeClasses() {
+        // Only variables with the same domain and incidence may be interchangeable.
+        Map<List<Object>, List<Variable>> candidates = new LinkedHashMap<>();
+        for (var x : problem.features.collecting.variables) {
+            candidates.computeIfAbsent(incidenceOf(x), k -> new ArrayList<>()).add(x);
+        }
+
+        List<List<Variable>> classes = new ArrayList<>();
+        for (var group : candidates.values()) {
+            List<Variable> representatives = new ArrayList<>();
+            for (var x : group) {
+                var rep = representatives.stream().filter(y -> isInterchangeable(y, x))
+                        .findFirst();
+                if (rep.isPresent()) {
+                    parent[x.num] = rep.get().num;
+                } else {
+                    representatives.add(x);
+                }
+            }
+            for (var rep : representatives) {
+                List<Variable> c = new ArrayList<>();
+                for (var x : group) {
+                    if (parent[x.num] == rep.num) {
+                        c.add(x);
+                    }
+                }
+                if (c.size() > 1) {
+                    classes.add(c);
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Computes the incidence of a variable, i.e., the values of its current domain and
+     * the sorted list of the colors of the positions at which it appears in the
+     * constraints.
+     *
+     * @param x The variable to compute the incidence of.
+     *
+     * @return The incidence of the variable.
+     */
+    private List<Object> incidenceOf(Variable x) {
+        List<String> colors = new ArrayList<>();
+        for (var c : involving.get(x.num)) {
+            int[] matching = matchingOf(c);
+            for (int i = 0; i < c.scp.length; i++) {
+                if (c.scp[i] == x) {
+                    colors.add(colorOf(c) + "/" + matching[i]);
+                }
+            }
+        }
+        colors.sort(null);
+        return List.of(valuesOf(x.dom), colors);
+    }
+
+    /**
+     * Gives the values of a domain.
+     * The domain type identifier is not enough here, as it ignores the values removed
+     * when the variable is built.
+     *
+     * @param dom The domain to get the values of.
+     *
+     * @return The values currently in the domain.
+     */
+    private static List<Integer> valuesOf(Domain dom) {
+        List<Integer> values = new ArrayList<>(dom.size());
+        for (int a = dom.first(); a != -1; a = dom.next(a)) {
+            values.add(dom.toVal(a));
+        }
+        return values;
+    }
+
+    /**
+     * Gives the color of a constraint.
+     * Two constraints have the same color only if they have the same relation, up to
+     * their scope.
+     *
+     * @param c The constraint to get the color of.
+     *
+     * @return The key of the constraint if it encodes all its parameters, or an identifier
+     *         that is unique to the constraint otherwise.
+     */
+    private static String colorOf(Constraint c) {
+        var key = c.getKey();
+        if ((c instanceof ConstraintIntension) || (c instanceof ConstraintExtension)
+                || !key.equals(c.signature().toString())) {
+            // The key has been defined from the parameters of the constraint.
+            return key;
+        }
+        return "#" + c.num;
+    }
+
+    /**
+     * Checks whether swapping two variables maps the constraints of the problem onto
+     * themselves.
+     *
+     * @param x The first variable to swap.
+     * @param y The second variable to swap.
+     *
+     * @return Whether the variables are interchangeable.
+     */
+    private boolean isInterchangeable(Variable x, Variable y) {
+        // Only the constraints involving one of the variables may be modified.
+        Map<CanonicalForm, Integer> swapped = new HashMap<>();
+        for (var l : List.of(involving.get(x.num), involving.get(y.num))) {
+            for (var c : l) {
+                if ((l == involving.get(y.num)) && Arrays.asList(c.scp).contains(x)) {
+                    // This constraint has already been considered.
+                    continue;
+                }
+                var form = new CanonicalForm(c, x.num, y.num);
+                if (swapped.merge(form, 1, Integer::sum) > forms.getOrDefault(form, 0)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gives the symmetry matching of a constraint, in which two positions of its scope
+     * have the same value when the variables at these positions are interchangeable in
+     * this constraint.
+     *
+     * @param c The constraint to get the matching of.
+     *
+     * @return The symmetry matching of the constraint.
+     */
+    private static int[] matchingOf(Constraint c) {
+        if (c.isSymmetric() == null) {
+            // Nothing is known about this constraint: its positions are all different.
+            int[] matching = new int[c.scp.length];
+            Arrays.setAll(matching, i -> i + 1);
+            return matching;
+        }
+        return c.symmetryMatching();
+    }
+
+    /**
+     * The CanonicalForm is a representation of a constraint that does not depend on the
+     * order of the variables at interchangeable positions of its scope.
+     */
+    private static final class CanonicalForm {
+
+        /**
+         * The color of the constraint.
+         */
+        private final String key;
+
+        /**
+         * The numbers of the variables in the scope of the constraint, sorted in each
+         * group of interchangeable positions.
+         */
+        private final int[] scope;
+
+        /**
+         * The symmetry matching of the constraint.
+         */
+        private final int[] matching;
+
+        /**
+         * Creates the canonical form of a constraint in which two variables are swapped.
+         *
+         * @param c The constraint.
+         * @param x The number of the first swapped variable, or {@code -1}.
+         * @param y The number of the second swapped variable, or {@code -1}.
+         */
+        private CanonicalForm(Constraint c, int x, int y) {
+            this.key = colorOf(c);
+            this.matching = matchingOf(c).clone();
+            this.scope = new int[c.scp.length];
+            for (int i = 0; i < scope.length; i++) {
+                int num = c.scp[i].num;
+                scope[i] = (num == x) ? y : ((num == y) ? x : num);
+            }
+
+            // Positions are grouped by matching, and sorted inside their group.
+            Integer[] positions = new Integer[scope.length];
+            Arrays.setAll(positions, i -> i);
+            Arrays.sort(positions, (i, j) -> (matching[i] == matching[j])
+                    ? Integer.compare(scope[i], scope[j])
+                    : Integer.compare(matching[i], matching[j]));
+            int[] sorted = new int[scope.length];
+            int[] sortedMatching = new int[scope.length];
+            for (int i = 0; i < positions.length; i++) {
+                sorted[i] = scope[positions[i]];
+                sortedMatching[i] = matching[positions[i]];
+            }
+            System.arraycopy(sorted, 0, scope, 0, scope.length);
+            System.arraycopy(sortedMatching, 0, matching, 0, matching.length);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, Arrays.hashCode(scope), Arrays.hashCode(matching));
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CanonicalForm)) {
+                return false;
+            }
+            var other = (CanonicalForm) obj;
+            return key.equals(other.key) && Arrays.equals(scope, other.scope)
+                    && Arrays.equals(matching, other.matching);
+        }
+
+    }
+
+}
@@ -0,0 +1,462 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.xcsp.common.Constants;
+import org.xcsp.common.IVar.Var;
+import org.xcsp.common.structures.Transition;
+
+import problem.Problem;
+import variables.Variable;
+
+/**
+ * The AceTableCompressor compresses large positive tables before they are given to ACE.
+ * A table is either compressed into a short table (i.e., a table containing
+ * {@link Constants#STAR_INT}), or into a reduced MDD, depending on which one is the
+ * smallest.
+ * The table is posted as is when none of these representations is smaller than the
+ * original table.
+ * Compressed tables are cached, so that a table appearing in several constraints is
+ * compressed only once.
+ * The cache only keeps a digest of the original tables, so that these tables are not
+ * retained once they have been posted.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class AceTableCompressor {
+
+    /**
+     * The minimum number of values in a table for this table to be compressed.
+     */
+    private final int threshold;
+
+    /**
+     * The cache of the tables that have already been compressed, indexed by the digests
+     * of these tables.
+     */
+    private final Map<TableKey, Compressed> cache = new HashMap<>();
+
+    /**
+     * Creates a new AceTableCompressor.
+     *
+     * @param threshold The minimum number of values in a table for this table to be
+     *        compressed.
+     */
+    AceTableCompressor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Posts a positive table constraint, after having compressed its table if possible.
+     *
+     * @param p The problem in which to post the constraint.
+     * @param scp The variables in the scope of the constraint.
+     * @param tuples The allowed tuples, which must all be valid w.r.t. the domains of the
+     *        variables.
+     *
+     * @return Whether the constraint has been posted, or {@code false} if it must be
+     *         posted as an ordinary table.
+     */
+    boolean post(Problem p, Var[] scp, int[][] tuples) {
+        if ((tuples.length == 0) || (((long) tuples.length * scp.length) < threshold)) {
+            return false;
+        }
+
+        var vars = Arrays.stream(scp).map(x -> (Variable) x).toArray(Variable[]::new);
+        if (!Variable.areAllDistinct(vars)) {
+            // MDDs cannot be built on a scope containing the same variable twice.
+            return false;
+        }
+
+        int[] sizes = new int[scp.length];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = vars[i].dom.size();
+        }
+
+        var compressed = cache.computeIfAbsent(new TableKey(tuples, sizes),
+                k -> compress(tuples, sizes));
+        if (compressed.shortTable != null) {
+            p.extension(scp, compressed.shortTable, true, true);
+            return true;
+        }
+        if (compressed.mdd != null) {
+            p.mdd(scp, compressed.mdd);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Computes the smallest representation of a table.
+     *
+     * @param tuples The tuples of the table.
+     * @param sizes The sizes of the domains of the variables.
+     *
+     * @return The compressed table.
+     */
+    private static Compressed compress(int[][] tuples, int[] sizes) {
+        long size = (long) tuples.length * sizes.length;
+        int[][] shortTable = shorten(tuples, sizes);
+        long shortSize = (long) shortTable.length * sizes.length;
+        var mdd = new MDDBuilder(sizes.length);
+        mdd.build(tuples);
+
+        if ((shortSize <= mdd.transitions.size()) && (shortSize < size)) {
+            return new Compressed(shortTable, null);
+        }
+        if (mdd.transitions.size() < size) {
+            return new Compressed(null, mdd.transitions.toArray(new Transition[0]));
+        }
+        return new Compressed(null, null);
+    }
+
+    /**
+     * Compresses a table into a short table.
+     * For each variable in turn, the tuples that only differ on the value of this
+     * variable, and that cover the whole domain of the variable, are replaced by a
+     * single tuple with {@link Constants#STAR_INT} for this variable.
+     *
+     * @param tuples The tuples of the table.
+     * @param sizes The sizes of the domains of the variables.
+     *
+     * @return The tuples of the short table.
+     */
+    static int[][] shorten(int[][] tuples, int[] sizes) {
+        Set<TupleKey> distinct = new HashSet<>();
+        List<int[]> current = new ArrayList<>(tuples.length);
+        for (int[] t : tuples) {
+            if (distinct.add(new TupleKey(t))) {
+                current.add(t);
+            }
+        }
+
+        for (int i = 0; i < sizes.length; i++) {
+            // Counting the values of the variable for each group of tuples.
+            Map<TupleKey, int[]> groups = new HashMap<>();
+            for (int[] t : current) {
+                if (t[i] != Constants.STAR_INT) {
+                    groups.computeIfAbsent(new TupleKey(withStar(t, i)), k -> new int[1])[0]++;
+                }
+            }
+
+            // Replacing the groups covering the whole domain by a single tuple.
+            List<int[]> next = new ArrayList<>(current.size());
+            Set<TupleKey> added = new HashSet<>();
+            for (int[] t : current) {
+                if (t[i] == Constants.STAR_INT) {
+                    if (added.add(new TupleKey(t))) {
+                        next.add(t);
+                    }
+                    continue;
+                }
+                var key = new TupleKey(withStar(t, i));
+                if (groups.get(key)[0] < sizes[i]) {
+                    next.add(t);
+                } else if (added.add(key)) {
+                    next.add(key.tuple);
+                }
+            }
+            current = next;
+        }
+        return current.toArray(new int[current.size()][]);
+    }
+
+    /**
+     * Gives a copy of a tuple in which the value of a variable is replaced by
+     * {@link Constants#STAR_INT}.
+     *
+     * @param tuple The tuple to copy.
+     * @param i The index of the variable.
+     *
+     * @return The copied tuple.
+     */
+    private static int[] withStar(int[] tuple, int i) {
+        int[] t = tuple.clone();
+        t[i] = Constants.STAR_INT;
+        return t;
+    }
+
+    /**
+     * The MDDBuilder builds a reduced MDD from the tuples of a table.
+     * Equivalent nodes are merged as they are built, so that the MDD never contains two
+     * nodes with the same outgoing transitions.
+     */
+    private static final class MDDBuilder {
+
+        /**
+         * The number of variables in the tuples.
+         */
+        private final int arity;
+
+        /**
+         * The identifiers of the nodes built so far, indexed by their outgoing arcs.
+         */
+        private final Map<List<Integer>, Integer> nodes = new HashMap<>();
+
+        /**
+         * The transitions of the MDD.
+         */
+        private final List<Transition> transitions = new ArrayList<>();
+
+        /**
+         * Creates a new MDDBuilder.
+         *
+         * @param arity The number of variables in the tuples.
+         */
+        private MDDBuilder(int arity) {
+            this.arity = arity;
+        }
+
+        /**
+         * Builds the MDD representing the given tuples.
+         *
+         * @param tuples The tuples to represent.
+         */
+        private void build(int[][] tuples) {
+            int[][] sorted = tuples.clone();
+            Arrays.sort(sorted, Arrays::compare);
+            build(sorted, 0, sorted.length, 0);
+        }
+
+        /**
+         * Builds the node representing the suffixes of the given tuples.
+         *
+         * @param tuples The tuples, in lexicographic order.
+         * @param from The index of the first tuple to consider.
+         * @param to The index of the tuple following the last one to consider.
+         * @param level The index of the variable labeling the outgoing arcs of the node.
+         *
+         * @return The identifier of the node.
+         */
+        private int build(int[][] tuples, int from, int to, int level) {
+            if (level == arity) {
+                // The terminal node.
+                return 0;
+            }
+
+            List<Integer> arcs = new ArrayList<>();
+            arcs.add(level);
+            for (int i = from, j = from; i < to; i = j) {
+                int value = tuples[i][level];
+                while ((j < to) && (tuples[j][level] == value)) {
+                    j++;
+                }
+                arcs.add(value);
+                arcs.add(build(tuples, i, j, level + 1));
+            }
+
+            var id = nodes.get(arcs);
+            if (id == null) {
+                id = nodes.size() + 1;
+                nodes.put(arcs, id);
+                for (int k = 1; k < arcs.size(); k += 2) {
+                    transitions.add(new Transition(
+                            name(id), (long) arcs.get(k), name(arcs.get(k + 1))));
+                }
+            }
+            return id;
+        }
+
+        /**
+         * Gives the name of a node.
+         *
+         * @param id The identifier of the node.
+         *
+         * @return The name of the node.
+         */
+        private static String name(int id) {
+            return (id == 0) ? "t" : ("n" + id);
+        }
+
+    }
+
+    /**
+     * The TupleKey wraps a tuple so that it can be used as a key in a hash-based
+     * collection.
+     */
+    private static final class TupleKey {
+
+        /**
+         * The wrapped tuple.
+         */
+        private final int[] tuple;
+
+        /**
+         * The hash code of the tuple.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new TupleKey.
+         *
+         * @param tuple The tuple to wrap.
+         */
+        private TupleKey(int[] tuple) {
+            this.tuple = tuple;
+            this.hash = Arrays.hashCode(tuple);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof TupleKey) && Arrays.equals(tuple, ((TupleKey) obj).tuple);
+        }
+
+    }
+
+    /**
+     * The TableKey identifies a table in the cache of compressed tables.
+     * Two tables are considered equal when they have the same tuples and the domains of
+     * their variables have the same sizes.
+     * Tables are identified by a SHA-256 digest of their content rather than by their
+     * tuples, so that the cache does not retain these tuples.
+     */
+    private static final class TableKey {
+
+        /**
+         * The name of the algorithm used to compute the digests of the tables.
+         */
+        private static final String ALGORITHM = "SHA-256";
+
+        /**
+         * The digest of the table.
+         */
+        private final byte[] digest;
+
+        /**
+         * The hash code of the table.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new TableKey.
+         *
+         * @param tuples The tuples of the table.
+         * @param sizes The sizes of the domains of the variables.
+         */
+        private TableKey(int[][] tuples, int[] sizes) {
+            MessageDigest md;
+            try {
+                md = MessageDigest.getInstance(ALGORITHM);
+
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Cannot compute the digest of a table", e);
+            }
+
+            var buffer = ByteBuffer.allocate(Integer.BYTES * (sizes.length + 1));
+            buffer.putInt(tuples.length);
+            for (int size : sizes) {
+                buffer.putInt(size);
+            }
+            md.update(buffer.array());
+            for (int[] t : tuples) {
+                buffer.clear();
+                buffer.putInt(t.length);
+                for (int v : t) {
+                    buffer.putInt(v);
+                }
+                md.update(buffer.array(), 0, buffer.position());
+            }
+            this.digest = md.digest();
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof TableKey) && Arrays.equals(digest, ((TableKey) obj).digest);
+        }
+
+    }
+
+    /**
+     * The Compressed is the compressed representation of a table.
+     * At most one of its representations is defined, and none of them is if the table
+     * cannot be compressed.
+     */
+    private static final class Compressed {
+
+        /**
+         * The tuples of the short table representing the table.
+         */
+        private final int[][] shortTable;
+
+        /**
+         * The transitions of the MDD representing the table.
+         */
+        private final Transition[] mdd;
+
+        /**
+         * Creates a new Compressed.
+         *
+         * @param shortTable The tuples of the short table representing the table.
+         * @param mdd The transitions of the MDD representing the table.
+         */
+        private Compressed(int[][] shortTable, Transition[] mdd) {
+            this.shortTable = shortTable;
+            this.mdd = mdd;
+        }
+
+    }
+
+}
@@ -0,0 +1,191 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The AceTableReader reads the tuples of a table constraint from a binary source,
+ * directly into the {@code int[][]} representation expected by ACE.
+ * The tuples are stored as consecutive big-endian 32-bit integers, each tuple being made
+ * of as many integers as there are variables in the scope of the constraint.
+ * The value {@link org.xcsp.common.Constants#STAR_INT} represents any value.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class AceTableReader {
+
+    /**
+     * The size of the buffer used to read the tuples from a channel.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The number of values in each tuple.
+     */
+    private final int arity;
+
+    /**
+     * The tuples that have been read so far.
+     */
+    private int[][] tuples;
+
+    /**
+     * The number of tuples that have been read so far.
+     */
+    private int nbTuples;
+
+    /**
+     * Creates a new AceTableReader.
+     *
+     * @param arity The number of values in each tuple.
+     * @param capacity The expected number of tuples.
+     */
+    private AceTableReader(int arity, int capacity) {
+        if (arity <= 0) {
+            throw new IllegalArgumentException("The arity of a table must be > 0");
+        }
+        this.arity = arity;
+        this.tuples = new int[Math.max(capacity, 16)][];
+    }
+
+    /**
+     * Reads all the tuples available in a channel.
+     * The channel is not closed by this method.
+     *
+     * @param channel The channel to read the tuples from.
+     * @param arity The number of values in each tuple.
+     *
+     * @return The tuples that have been read.
+     *
+     * @throws IOException If an I/O error occurs while reading the channel.
+     * @throws IllegalArgumentException If the channel ends in the middle of a tuple.
+     */
+    static int[][] read(ReadableByteChannel channel, int arity) throws IOException {
+        var reader = new AceTableReader(arity, 0);
+        var buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, 4 * arity));
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            reader.readTuples(buffer);
+            buffer.compact();
+        }
+        buffer.flip();
+        reader.checkEnd(buffer);
+        return reader.toArray();
+    }
+
+    /**
+     * Reads all the tuples stored in a file, by mapping this file in memory.
+     *
+     * @param file The path of the file to read the tuples from.
+     * @param arity The number of values in each tuple.
+     *
+     * @return The tuples that have been read.
+     *
+     * @throws IOException If an I/O error occurs while reading the file.
+     * @throws IllegalArgumentException If the file ends in the middle of a tuple.
+     */
+    static int[][] read(Path file, int arity) throws IOException {
+        if (arity <= 0) {
+            throw new IllegalArgumentException("The arity of a table must be > 0");
+        }
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long tupleSize = 4L * arity;
+            if (size % tupleSize != 0) {
+                throw new IllegalArgumentException(
+                        "The size of " + file + " is not a multiple of the size of a tuple");
+            }
+
+            // A mapped region cannot exceed 2 GiB, so large files are mapped by chunks.
+            long chunk = (Integer.MAX_VALUE / tupleSize) * tupleSize;
+            var reader = new AceTableReader(arity, Math.toIntExact(size / tupleSize));
+            for (long position = 0; position < size; position += chunk) {
+                var buffer = channel.map(MapMode.READ_ONLY, position, Math.min(chunk, size - position));
+                reader.readTuples(buffer);
+            }
+            return reader.toArray();
+        }
+    }
+
+    /**
+     * Reads all the complete tuples available in a buffer.
+     *
+     * @param buffer The buffer to read the tuples from.
+     */
+    private void readTuples(ByteBuffer buffer) {
+        IntBuffer values = buffer.asIntBuffer();
+        int nbRead = values.remaining() / arity;
+        ensureCapacity(nbTuples + nbRead);
+        for (int i = 0; i < nbRead; i++) {
+            int[] tuple = new int[arity];
+            values.get(tuple);
+            tuples[nbTuples++] = tuple;
+        }
+        buffer.position(buffer.position() + 4 * arity * nbRead);
+    }
+
+    /**
+     * Checks that no incomplete tuple remains in a buffer.
+     *
+     * @param buffer The buffer to check.
+     *
+     * @throws IllegalArgumentException If the buffer contains an incomplete tuple.
+     */
+    private void checkEnd(ByteBuffer buffer) {
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("The last tuple of the table is incomplete");
+        }
+    }
+
+    /**
+     * Ensures that the array of tuples can store the given number of tuples.
+     *
+     * @param capacity The number of tuples to store.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > tuples.length) {
+            tuples = Arrays.copyOf(tuples, Math.max(capacity, tuples.length + (tuples.length >> 1)));
+        }
+    }
+
+    /**
+     * Gives the tuples that have been read.
+     *
+     * @return The array of tuples.
+     */
+    private int[][] toArray() {
+        return (nbTuples == tuples.length) ? tuples : Arrays.copyOf(tuples, nbTuples);
+    }
+
+}
@@ -22,12 +22,15 @@ package fr.univartois.cril.aceurancetourix;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.xcsp.common.Range;
 
+import fr.univartois.cril.juniverse.core.UniverseContradictionException;
 import fr.univartois.cril.juniverse.core.problem.IUniverseDomain;
 import variables.Domain;
 
@@ -41,6 +44,16 @@ import variables.Domain;
  */
 public class JUniverseAceDomainAdapter implements IUniverseDomain {
 
+    /**
+     * The smallest {@code int} value, as a {@link BigInteger}.
+     */
+    private static final BigInteger INT_MIN = BigInteger.valueOf(Integer.MIN_VALUE);
+
+    /**
+     * The largest {@code int} value, as a {@link BigInteger}.
+     */
+    private static final BigInteger INT_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+
     private Domain dom;
 
 
@@ -113,23 +126,254 @@ public class JUniverseAceDomainAdapter implements IUniverseDomain {
         return current;
 	}
 
-	@Override
-	public void keepValues(BigInteger min, BigInteger max) {
-		throw new UnsupportedOperationException();
-	}
+    /**
+     * Gives the current minimum value of this domain, without any allocation.
+     *
+     * @return The minimum value of this domain.
+     */
+    public int intMin() {
+        return dom.firstValue();
+    }
 
-	@Override
-	public void keepValues(List<BigInteger> values) {
-		throw new UnsupportedOperationException();
-	}
+    /**
+     * Gives the current maximum value of this domain, without any allocation.
+     *
+     * @return The maximum value of this domain.
+     */
+    public int intMax() {
+        return dom.lastValue();
+    }
 
-	@Override
-	public void removeValues(BigInteger min, BigInteger max) {
-		throw new UnsupportedOperationException();
-	}
+    /**
+     * Copies the current values of this domain into the given buffer.
+     *
+     * @param buffer The buffer in which to copy the values.
+     * @param offset The index in the buffer at which to copy the first value.
+     *
+     * @return The number of values that have been copied.
+     *
+     * @throws ArrayIndexOutOfBoundsException If the buffer is too small.
+     */
+    public int currentValues(int[] buffer, int offset) {
+        int n = offset;
+        for (int i = dom.first(); i != -1; i = dom.next(i)) {
+            buffer[n++] = dom.toVal(i);
+        }
+        return n - offset;
+    }
+
+    /**
+     * Sets in the given bitset the indexes of the values that are currently in this
+     * domain.
+     * The index of a value is its position in the initial domain.
+     *
+     * @param bits The bitset to fill, which must contain at least as many bits as there
+     *        are values in the initial domain (i.e., {@code dom.initSize()}, as given by
+     *        {@link #size()}), even if values have been removed since then.
+     *
+     * @throws ArrayIndexOutOfBoundsException If the bitset is too small.
+     */
+    public void currentIndexes(long[] bits) {
+        int words = (dom.initSize() + Long.SIZE - 1) / Long.SIZE;
+        for (int w = 0; w < words; w++) {
+            bits[w] = 0;
+        }
+        for (int i = dom.first(); i != -1; i = dom.next(i)) {
+            bits[i / Long.SIZE] |= 1L << (i % Long.SIZE);
+        }
+    }
+
+    /**
+     * Copies the size and the current values of a domain into the given buffer.
+     *
+     * @param dom The domain to copy.
+     * @param buffer The buffer in which to copy the domain.
+     * @param offset The index in the buffer at which to copy the size of the domain,
+     *        followed by its values.
+     *
+     * @return The index in the buffer following the last copied value.
+     */
+    static int snapshot(Domain dom, int[] buffer, int offset) {
+        buffer[offset++] = dom.size();
+        for (int i = dom.first(); i != -1; i = dom.next(i)) {
+            buffer[offset++] = dom.toVal(i);
+        }
+        return offset;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.juniverse.core.problem.IUniverseDomain#keepValues(java.math.
+     * BigInteger, java.math.BigInteger)
+     */
+    @Override
+    public void keepValues(BigInteger min, BigInteger max) {
+        keepValues(clamp(min), clamp(max));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.juniverse.core.problem.IUniverseDomain#keepValues(java.util.List)
+     */
+    @Override
+    public void keepValues(List<BigInteger> values) {
+        keepValues(toIntValues(values));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.juniverse.core.problem.IUniverseDomain#removeValues(java.math.
+     * BigInteger, java.math.BigInteger)
+     */
+    @Override
+    public void removeValues(BigInteger min, BigInteger max) {
+        removeValues(clamp(min), clamp(max));
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see
+     * fr.univartois.cril.juniverse.core.problem.IUniverseDomain#removeValues(java.util.
+     * List)
+     */
+    @Override
+    public void removeValues(List<BigInteger> values) {
+        removeValues(toIntValues(values));
+    }
+
+    /**
+     * Converts a bound to an {@code int}, by clamping it to the range of {@code int}
+     * values (in which all the values of ACE's domains lie).
+     *
+     * @param bound The bound to convert.
+     *
+     * @return The converted bound.
+     */
+    private static int clamp(BigInteger bound) {
+        return bound.max(INT_MIN).min(INT_MAX).intValue();
+    }
+
+    /**
+     * Converts values to {@code int}.
+     * The values that do not fit in an {@code int} cannot be in an ACE domain, and are
+     * thus ignored.
+     *
+     * @param values The values to convert.
+     *
+     * @return The converted values.
+     */
+    private static int[] toIntValues(List<BigInteger> values) {
+        return values.stream().filter(v -> v.bitLength() < Integer.SIZE)
+                .mapToInt(BigInteger::intValue).toArray();
+    }
+
+    /**
+     * Removes from this domain all the values that are not in the given range.
+     * Once the solver is built, the reduction is propagated at the root of the search,
+     * and is kept for all subsequent searches.
+     *
+     * @param min The minimum value to keep.
+     * @param max The maximum value to keep.
+     *
+     * @throws UniverseContradictionException If the domain or another domain becomes
+     *         empty.
+     */
+    public void keepValues(int min, int max) {
+        remove(v -> (v < min) || (max < v));
+    }
+
+    /**
+     * Removes from this domain all the values that are not in the given array.
+     * Once the solver is built, the reduction is propagated at the root of the search,
+     * and is kept for all subsequent searches.
+     *
+     * @param values The values to keep, in any order.
+     *
+     * @throws UniverseContradictionException If the domain or another domain becomes
+     *         empty.
+     */
+    public void keepValues(int[] values) {
+        int[] sorted = IntStream.of(values).sorted().distinct().toArray();
+        remove(v -> Arrays.binarySearch(sorted, v) < 0);
+    }
+
+    /**
+     * Removes from this domain all the values in the given range.
+     * Once the solver is built, the reduction is propagated at the root of the search,
+     * and is kept for all subsequent searches.
+     *
+     * @param min The minimum value to remove.
+     * @param max The maximum value to remove.
+     *
+     * @throws UniverseContradictionException If the domain or another domain becomes
+     *         empty.
+     */
+    public void removeValues(int min, int max) {
+        remove(v -> (min <= v) && (v <= max));
+    }
+
+    /**
+     * Removes from this domain all the values in the given array.
+     * Once the solver is built, the reduction is propagated at the root of the search,
+     * and is kept for all subsequent searches.
+     *
+     * @param values The values to remove, in any order.
+     *
+     * @throws UniverseContradictionException If the domain or another domain becomes
+     *         empty.
+     */
+    public void removeValues(int[] values) {
+        int[] sorted = IntStream.of(values).sorted().distinct().toArray();
+        remove(v -> Arrays.binarySearch(sorted, v) >= 0);
+    }
+
+    /**
+     * Removes values from this domain.
+     * While the problem is being built, the values are removed at construction time.
+     * Otherwise, the removal is delegated to the head of the solver, which records it
+     * at the root of the search.
+     *
+     * @param toRemove The predicate identifying the values to remove.
+     *
+     * @throws UniverseContradictionException If the domain or another domain becomes
+     *         empty.
+     *
+     * @see AceHead#prune(variables.Variable, IntPredicate)
+     */
+    private void remove(IntPredicate toRemove) {
+        var x = dom.var();
+        if (x.problem.solver == null) {
+            removeAtConstructionTime(toRemove);
+
+        } else {
+            ((AceHead) x.problem.head).prune(x, toRemove);
+        }
+    }
+
+    /**
+     * Removes values from this domain while the problem is being built.
+     *
+     * @param toRemove The predicate identifying the values to remove.
+     *
+     * @throws UniverseContradictionException If the domain becomes empty.
+     */
+    private void removeAtConstructionTime(IntPredicate toRemove) {
+        boolean empty = true;
+        for (int i = dom.first(); (i != -1) && empty; i = dom.next(i)) {
+            empty = toRemove.test(dom.toVal(i));
+        }
+        if (empty) {
+            throw new UniverseContradictionException("The domain of " + dom.var().id()
+                    + " has been wiped out");
+        }
+        dom.removeValuesAtConstructionTime(toRemove::test);
+    }
 
-	@Override
-	public void removeValues(List<BigInteger> values) {
-		throw new UnsupportedOperationException();
-	}
 }
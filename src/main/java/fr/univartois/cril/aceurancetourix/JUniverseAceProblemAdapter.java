@@ -37,13 +37,20 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.math.BigInteger;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.IntStream;
@@ -59,6 +66,7 @@ import org.xcsp.common.IVar.Var;
 import org.xcsp.common.Range;
 import org.xcsp.common.Types.TypeConditionOperatorRel;
 import org.xcsp.common.Types.TypeConditionOperatorSet;
+import org.xcsp.common.Types.TypeExpr;
 import org.xcsp.common.Types.TypeFramework;
 import org.xcsp.common.Types.TypeObjective;
 import org.xcsp.common.Types.TypeOperatorRel;
@@ -69,6 +77,7 @@ import org.xcsp.common.predicates.XNodeParent;
 import org.xcsp.common.structures.Automaton;
 import org.xcsp.common.structures.Transition;
 import org.xcsp.modeler.entities.VarEntities.VarAlone;
+import org.xcsp.modeler.entities.VarEntities.VarArray;
 import org.xcsp.modeler.entities.VarEntities.VarEntity;
 
 import dashboard.Control;
@@ -113,6 +122,16 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
      */
     private AceHead head;
 
+    /**
+     * The method used by ACE to create an auxiliary variable.
+     */
+    private static final Method AUX_VAR_FROM = findAuxVarFrom();
+
+    /**
+     * The minimum number of items ACE accepts in a bin-packing constraint.
+     */
+    private static final int MIN_BIN_PACKING_ITEMS = 3;
+
     public static int currentGroup;
 
     public static boolean inGroup;
@@ -124,6 +143,35 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     private List<List<BigInteger>> previousList;
 
     private UniverseSolverResult result;
+
+    /**
+     * The compressor used to compress large positive tables, if any.
+     */
+    private AceTableCompressor tableCompressor;
+
+    /**
+     * The automata compiled for the stretch constraints, indexed by the parameters of
+     * these constraints.
+     */
+    private final Map<List<Object>, Automaton> stretchAutomata = new HashMap<>();
+
+    /**
+     * The dictionary encoding the values of the symbolic variables.
+     */
+    private final AceSymbolicDictionary symbols = new AceSymbolicDictionary();
+
+    /**
+     * The problem in which the auxiliary variables representing terms of sums have been
+     * created.
+     */
+    private Problem termsProblem;
+
+    /**
+     * The auxiliary variables representing terms of sums, indexed by the textual form of
+     * these terms.
+     */
+    private final Map<String, Var> termVariables = new HashMap<>();
+
     /**
      * Creates a new JUniverseAceProblemAdapter.
      */
@@ -152,6 +200,51 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         return getHead().getBuilder();
     }
 
+    /**
+     * Switches the solver to eager construction, so that the variables and constraints
+     * added from now on are posted to ACE immediately, rather than being kept until the
+     * problem is solved.
+     * In this mode, errors detected by ACE while posting a constraint are thrown by the
+     * method adding this constraint.
+     *
+     * @throws IllegalStateException If the problem is already being built.
+     */
+    public void enableEagerConstruction() {
+        getHead().startEagerConstruction();
+    }
+
+    /**
+     * Enables the breaking of the symmetries of the problem due to interchangeable
+     * variables.
+     * Once all constraints have been posted, the variables that have the same domain and
+     * can be swapped without changing the set of constraints are detected, and the
+     * variables of each class of interchangeable variables are ordered by a lex-leader
+     * constraint.
+     * Note that symmetric solutions are then no longer enumerated.
+     */
+    public void enableSymmetryBreaking() {
+        getHead().xcsp3.setSymmetryBreaking(true);
+    }
+
+    /**
+     * Enables the compression of large positive tables.
+     * From now on, the tables containing at least the given number of values are
+     * compressed into a short table or an MDD when this reduces their size.
+     * Compressed tables are cached, so that a table shared by several constraints is
+     * compressed only once.
+     *
+     * @param threshold The minimum number of values (i.e., the number of tuples times
+     *        the arity) of a table for this table to be compressed.
+     *
+     * @throws IllegalArgumentException If the threshold is not positive.
+     */
+    public void enableTableCompression(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("The compression threshold must be > 0");
+        }
+        tableCompressor = new AceTableCompressor(threshold);
+    }
+
     /**
      * Gives the control of the solver.
      *
@@ -249,7 +342,26 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void interrupt() {
         getHead().interruptSearch();
-        System.out.println("interrupt from ace !");
+    }
+
+    /**
+     * Asks the solver to stop its search, without waiting for the search to stop.
+     * If no search is running, the next search stops as soon as it starts.
+     *
+     * @return A future completed when the search has actually stopped, describing why
+     *         and how long after the request it stopped.
+     */
+    public CompletableFuture<AceSearchStop> interruptAsync() {
+        return getHead().interruptSearchAsync();
+    }
+
+    /**
+     * Gives the reason for which the last search has stopped.
+     *
+     * @return The reason for which the last search has stopped.
+     */
+    public AceStopReason getStopReason() {
+        return getHead().getStopReason();
     }
 
     @Override
@@ -283,6 +395,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             solver.nogoodReasoner.reset();
        
         solver.stats.reset();
+        getHead().restorePrunings();
     }
 
     @Override
@@ -331,6 +444,80 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         getHead().getSolver().observersOnDecisions.removeIf(p);
     }
 
+    /**
+     * Gives the size of the buffer needed by {@link #snapshotDomains(int[])}.
+     *
+     * @return The number of values in the snapshot of all the current domains.
+     *
+     * @throws IllegalStateException If the problem has not been built yet.
+     */
+    public int snapshotSize() {
+        int size = 0;
+        for (var x : builtProblem().variables) {
+            size += 1 + x.dom.size();
+        }
+        return size;
+    }
+
+    /**
+     * Copies the current domains of all the variables into the given buffer, without any
+     * allocation.
+     * Variables are considered in the order of their creation.
+     * For each variable, the size of its domain is copied first, followed by its current
+     * values.
+     *
+     * @param buffer The buffer in which to copy the domains.
+     *
+     * @return The number of values copied into the buffer.
+     *
+     * @throws IllegalArgumentException If the buffer is too small to hold all domains.
+     * @throws IllegalStateException If the problem has not been built yet.
+     */
+    public int snapshotDomains(int[] buffer) {
+        if (buffer.length < snapshotSize()) {
+            throw new IllegalArgumentException("The buffer is too small to hold all domains");
+        }
+        int offset = 0;
+        for (var x : getHead().problem.variables) {
+            offset = JUniverseAceDomainAdapter.snapshot(x.dom, buffer, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Gives the problem built by ACE.
+     *
+     * @return The built problem.
+     *
+     * @throws IllegalStateException If the problem has not been built yet.
+     */
+    private Problem builtProblem() {
+        var problem = getHead().problem;
+        if (problem == null) {
+            throw new IllegalStateException("The problem has not been built yet");
+        }
+        return problem;
+    }
+
+    /**
+     * Adds a hook to be invoked by the search thread each time a run of the solver ends.
+     *
+     * @param hook The hook to add.
+     */
+    public void addRestartHook(AceRestartHook hook) {
+        getHead().getSolver().observersOnRuns.add(new AceRestartHookAdapter(hook, this));
+    }
+
+    /**
+     * Removes a hook invoked each time a run of the solver ends.
+     *
+     * @param hook The hook to remove.
+     */
+    public void removeRestartHook(AceRestartHook hook) {
+        getHead().getSolver().observersOnRuns.removeIf(o -> (o instanceof AceRestartHookAdapter)
+                && (((AceRestartHookAdapter) o).getAdaptee() == hook));
+    }
+
     @Override
     public void setTimeout(long arg0) {
         setTimeoutMs(arg0 * 1000);
@@ -342,6 +529,51 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         getBuilder().getOptionsGeneralBuilder().setTimeout(arg0);
     }
 
+    /**
+     * Sets the maximum number of nodes to explore during a search.
+     * When this budget is exhausted, the search stops with
+     * {@link AceStopReason#NODE_BUDGET}.
+     *
+     * @param budget The maximum number of nodes.
+     */
+    public void setNodeBudget(long budget) {
+        getHead().setNodeBudget(budget);
+    }
+
+    /**
+     * Sets the maximum number of wrong decisions to make during a search.
+     * When this budget is exhausted, the search stops with
+     * {@link AceStopReason#WRONG_DECISION_BUDGET}.
+     *
+     * @param budget The maximum number of wrong decisions.
+     */
+    public void setWrongDecisionBudget(long budget) {
+        getHead().setWrongDecisionBudget(budget);
+    }
+
+    /**
+     * Sets the maximum number of propagations (i.e., revisions) to perform during a
+     * search.
+     * When this budget is exhausted, the search stops with
+     * {@link AceStopReason#PROPAGATION_BUDGET}.
+     *
+     * @param budget The maximum number of revisions.
+     */
+    public void setPropagationBudget(long budget) {
+        getHead().setPropagationBudget(budget);
+    }
+
+    /**
+     * Sets the maximum growth of the used heap during a search.
+     * When this budget is exhausted, the search stops with
+     * {@link AceStopReason#MEMORY_BUDGET}.
+     *
+     * @param budget The maximum growth of the heap, in bytes.
+     */
+    public void setMemoryBudget(long budget) {
+        getHead().setMemoryBudget(budget);
+    }
+
     @Override
     public void setVerbosity(int arg0) {
         getBuilder().getOptionsGeneralBuilder().setVerbose(arg0);
@@ -359,6 +591,16 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         return sol;
     }
 
+    /**
+     * Gives the last solution found by the solver.
+     * The values of the symbolic variables are given as the integers encoding their
+     * symbols: use {@link #mapSymbolicSolution()} to get their symbols.
+     *
+     * @return The mapping associating the name of each variable to its value in the
+     *         solution.
+     *
+     * @throws IllegalStateException If no solution has been found.
+     */
     @Override
     public Map<String, BigInteger> mapSolution() {
         return mapSolution(false);
@@ -382,14 +624,57 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
                     sol.put(x.id(), BigInteger.valueOf(
                             x.dom.toVal(getHead().getSolver().solutions.last[x.num])));
                 }
+
+            } else if (va instanceof VarArray) {
+                for (IVar v : ((VarArray) va).flatVars) {
+                    Variable x = (Variable) v;
+                    sol.put(x.id(), BigInteger.valueOf(
+                            x.dom.toVal(getHead().getSolver().solutions.last[x.num])));
+                }
             }
 
         }
         return sol;
     }
 
+    /**
+     * Gives the value of a symbolic variable in the last solution found by the solver.
+     * The value is decoded only when this method is invoked.
+     *
+     * @param variable The identifier of the symbolic variable.
+     *
+     * @return The symbol assigned to the variable.
+     *
+     * @throws IllegalStateException If no solution has been found.
+     * @throws IllegalArgumentException If the variable is not symbolic.
+     */
+    public String symbolicValue(String variable) {
+        if (getHead().getSolver().solutions.found == 0) {
+            throw new IllegalStateException("No solution found !");
+        }
+        var x = (Variable) toVar(variable);
+        return symbols.decode(variable, x.dom.toVal(getHead().getSolver().solutions.last[x.num]));
+    }
+
+    /**
+     * Gives the values of the symbolic variables in the last solution found by the
+     * solver.
+     *
+     * @return The symbols assigned to the symbolic variables.
+     *
+     * @throws IllegalStateException If no solution has been found.
+     */
+    public Map<String, String> mapSymbolicSolution() {
+        Map<String, String> sol = new HashMap<>();
+        for (String variable : symbols.variables()) {
+            sol.put(variable, symbolicValue(variable));
+        }
+        return sol;
+    }
+
     @Override
     public UniverseSolverResult solve() {
+        symbols.clearTables();
         result = getHead().isSatisfiable();
         return result;
     }
@@ -415,7 +700,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
 
     @Override
     public UniverseSolverResult solve(List<UniverseAssumption<BigInteger>> arg0) {
-
+        symbols.clearTables();
         getHead().buildProblemAndSolver();
         List<Assumption> assumpts = new ArrayList<>();
         for (UniverseAssumption<BigInteger> assumpt : arg0) {
@@ -604,7 +889,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             List<BigInteger> arg1, UniverseRelationalOperator arg2, BigInteger arg3)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.count(toXnode(arg0), toIntArray(arg1), toCondition(arg2, arg3.intValue())));
+                p -> p.count(toXnode(arg0), toIntArray(arg1), toCondition(arg2, arg3.intValueExact())));
 
     }
 
@@ -622,7 +907,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.count(toVarArray(arg0), toIntArray(arg1),
-                        toCondition(arg2, arg3.intValue())));
+                        toCondition(arg2, arg3.intValueExact())));
 
     }
 
@@ -639,7 +924,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.count(toVarArray(arg0), toVarArray(arg1),
-                        toCondition(arg2, arg3.intValue())));
+                        toCondition(arg2, arg3.intValueExact())));
 
     }
 
@@ -803,7 +1088,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addElement(List<String> arg0, UniverseRelationalOperator operator, BigInteger arg1)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(p -> p.element(toVarArray(arg0),
-                toCondition(operator, arg1.intValue())));
+                toCondition(operator, arg1.intValueExact())));
     }
 
     @Override
@@ -818,7 +1103,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator operator, BigInteger arg3)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(p -> p.element(toVarArray(arg0), arg1, toVar(arg2),
-                TypeRank.ANY, toCondition(operator, arg3.intValue())));
+                TypeRank.ANY, toCondition(operator, arg3.intValueExact())));
     }
 
     @Override
@@ -835,7 +1120,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(p -> p.element(toIntMatrix(arg0), arg1, toVar(arg2),
                 arg3,
-                toVar(arg4), toCondition(operator, arg5.intValue())));
+                toVar(arg4), toCondition(operator, arg5.intValueExact())));
     }
 
     @Override
@@ -853,7 +1138,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator operator,
             BigInteger arg3) throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(p -> p.element(toIntArray(arg0), arg1, toVar(arg2),
-                TypeRank.ANY, toCondition(operator, arg3.intValue())));
+                TypeRank.ANY, toCondition(operator, arg3.intValueExact())));
 
     }
 
@@ -872,7 +1157,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(p -> p.element(toVarMatrix(arg0), arg1, toVar(arg2),
                 arg3,
-                toVar(arg4), toCondition(operator, arg5.intValue())));
+                toVar(arg4), toCondition(operator, arg5.intValueExact())));
 
     }
 
@@ -899,22 +1184,35 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
 
     @Override
     public void addInstantiation(String arg0, int arg1) throws UniverseContradictionException {
-        getHead().xcsp3.addConstraintsToAdd(p -> p.instantiation(new Var[] { toVar(arg0) }, arg1));
+        if (!getHead().xcsp3.keepValues(arg0, new int[] { arg1 })) {
+            getHead().xcsp3.addConstraintsToAdd(
+                    p -> p.instantiation(new Var[] { toVar(arg0) }, arg1));
+        }
     }
 
     @Override
     public void addInstantiation(String arg0, BigInteger arg1)
             throws UniverseContradictionException {
-        getHead().xcsp3.addConstraintsToAdd(
-                p -> p.instantiation(new Var[] { toVar(arg0) }, arg1.intValue()));
-
+        addInstantiation(arg0, arg1.intValueExact());
     }
 
     @Override
     public void addInstantiation(List<String> arg0, List<? extends Number> arg1)
             throws UniverseContradictionException {
-        getHead().xcsp3.addConstraintsToAdd(
-                p -> p.instantiation(toVarArray(arg0), toIntArray(arg1)));
+        int[] values = toIntArray(arg1);
+        List<String> vars = new ArrayList<>();
+        List<Integer> vals = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            // The variables that are not known yet must be instantiated by a constraint.
+            if (!getHead().xcsp3.keepValues(arg0.get(i), new int[] { values[i] })) {
+                vars.add(arg0.get(i));
+                vals.add(values[i]);
+            }
+        }
+        if (!vars.isEmpty()) {
+            getHead().xcsp3.addConstraintsToAdd(
+                    p -> p.instantiation(toVarArray(vars), toIntArray(vals)));
+        }
     }
 
     @Override
@@ -984,7 +1282,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addMaximum(List<String> arg0, UniverseRelationalOperator arg1, BigInteger arg2)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.maximum(toVarArray(arg0), toCondition(arg1, arg2.intValue())));
+                p -> p.maximum(toVarArray(arg0), toCondition(arg1, arg2.intValueExact())));
     }
 
     @Override
@@ -999,7 +1297,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator arg1, BigInteger arg2)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.maximum(toXnode(arg0), toCondition(arg1, arg2.intValue())));
+                p -> p.maximum(toXnode(arg0), toCondition(arg1, arg2.intValueExact())));
     }
 
     @Override
@@ -1012,7 +1310,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addMinimum(List<String> arg0, UniverseRelationalOperator arg1, BigInteger arg2)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.minimum(toVarArray(arg0), toCondition(arg1, arg2.intValue())));
+                p -> p.minimum(toVarArray(arg0), toCondition(arg1, arg2.intValueExact())));
 
     }
 
@@ -1028,7 +1326,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator arg1, BigInteger arg2)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.minimum(toXnode(arg0), toCondition(arg1, arg2.intValue())));
+                p -> p.minimum(toXnode(arg0), toCondition(arg1, arg2.intValueExact())));
 
     }
 
@@ -1072,7 +1370,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addNValues(List<String> arg0, UniverseRelationalOperator arg1, BigInteger arg2)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.nValues(toVarArray(arg0), toCondition(arg1, arg2.intValue())));
+                p -> p.nValues(toVarArray(arg0), toCondition(arg1, arg2.intValueExact())));
     }
 
     @Override
@@ -1087,7 +1385,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addNValuesExcept(List<String> arg0, UniverseRelationalOperator arg1,
             BigInteger arg2, List<BigInteger> arg3) throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.nValues(toVarArray(arg0), toCondition(arg1, arg2.intValue()),
+                p -> p.nValues(toVarArray(arg0), toCondition(arg1, arg2.intValueExact()),
                         toIntArray(arg3)));
 
     }
@@ -1104,7 +1402,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator arg1, BigInteger arg2)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.nValues(toXnode(arg0), toCondition(arg1, arg2.intValue())));
+                p -> p.nValues(toXnode(arg0), toCondition(arg1, arg2.intValueExact())));
     }
 
     @Override
@@ -1175,7 +1473,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             throws UniverseContradictionException {
         int[] coeffs = { 1 };
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.sum(toVarArray(List.of(arg0)), coeffs, toCondition(arg1, arg2.intValue())));
+                p -> p.sum(toVarArray(List.of(arg0)), coeffs, toCondition(arg1, arg2.intValueExact())));
 
     }
 
@@ -1195,10 +1493,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         getHead().xcsp3.addConstraintsToAdd(p -> {
             if (arg1 == UniverseSetBelongingOperator.IN) {
                 p.intension(XNodeParent.in(toVar(arg0),
-                        arg2.stream().map(BigInteger::intValue).collect(Collectors.toList())));
+                        arg2.stream().map(BigInteger::intValueExact).collect(Collectors.toList())));
             } else {
                 p.intension(XNodeParent.notin(toVar(arg0),
-                        arg2.stream().map(BigInteger::intValue).collect(Collectors.toList())));
+                        arg2.stream().map(BigInteger::intValueExact).collect(Collectors.toList())));
             }
         });
     }
@@ -1209,10 +1507,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         getHead().xcsp3.addConstraintsToAdd(p -> {
             if (arg1 == UniverseSetBelongingOperator.IN) {
                 p.intension(XNodeParent.in(toVar(arg0),
-                        new Range(arg2.intValue(), arg3.intValue() + 1)));
+                        new Range(arg2.intValueExact(), arg3.intValueExact() + 1)));
             } else {
                 p.intension(XNodeParent.notin(toVar(arg0),
-                        new Range(arg2.intValue(), arg3.intValue() + 1)));
+                        new Range(arg2.intValueExact(), arg3.intValueExact() + 1)));
             }
         });
     }
@@ -1274,7 +1572,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         int[] coeffs = new int[arg0.size()];
         Arrays.fill(coeffs, 1);
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.sum(toVarArray(vars), coeffs, toCondition(arg1, arg2.intValue())));
+                p -> p.sum(toVarArray(vars), coeffs, toCondition(arg1, arg2.intValueExact())));
 
     }
 
@@ -1293,9 +1591,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addSum(List<String> arg0, List<BigInteger> arg1, UniverseRelationalOperator arg2,
             BigInteger arg3) throws UniverseContradictionException {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.sum(toVarArray(vars), coeffs, toCondition(arg2, arg3.intValue())));
+                p -> p.sum(toVarArray(vars), coeffs, toCondition(arg2, arg3.intValueExact())));
 
     }
 
@@ -1303,7 +1601,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addSum(List<String> arg0, List<BigInteger> arg1, UniverseRelationalOperator arg2,
             String arg3) throws UniverseContradictionException {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.sum(toVarArray(vars), coeffs, toCondition(arg2, arg3)));
     }
@@ -1315,7 +1613,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         int[] coeffs = new int[arg0.size()];
         Arrays.fill(coeffs, 1);
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.sum(toXnode(arg0), coeffs, toCondition(arg1, arg2.intValue())));
+                p -> p.sum(toXnode(arg0), coeffs, toCondition(arg1, arg2.intValueExact())));
 
     }
 
@@ -1334,7 +1632,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator arg2, BigInteger arg3)
             throws UniverseContradictionException {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.sum(toXnode(arg0), toIntArray(arg1), toCondition(arg2, arg3.intValue())));
+                p -> p.sum(toXnode(arg0), toIntArray(arg1), toCondition(arg2, arg3.intValueExact())));
 
     }
 
@@ -1351,7 +1649,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             throws UniverseContradictionException {
         List<String> vars = new ArrayList<>(arg0);
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.sum(toVarArray(vars), toVarArray(arg1), toCondition(arg2, arg3.intValue())));
+                p -> p.sum(toVarArray(vars), toVarArray(arg1), toCondition(arg2, arg3.intValueExact())));
     }
 
     @Override
@@ -1367,6 +1665,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             throws UniverseContradictionException {
         var t = new int[arg1.size()];
         toTuples(arg1, t);
+        if (getHead().xcsp3.keepValues(arg0, t)) {
+            return;
+        }
 
         getHead().xcsp3.addConstraintsToAdd(p -> {
             var y = (Variable) toVar(arg0);
@@ -1385,11 +1686,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         previousList = arg1;
         previousArray = t;
         previousStarred = starred;
+        var compressor = tableCompressor;
         getHead().xcsp3.addConstraintsToAdd(p -> {
             var array = toVarArray(arg0);
             Variable[] scp = Stream.of(array).map(x -> (Variable) x).toArray(Variable[]::new);
 		    var tuple = Stream.of(t).filter(x -> Variable.isValidTuple(scp, x, false)).toArray(int[][]::new);
-            p.extension(array, tuple, true, starred);
+            postExtension(p, compressor, array, tuple, true, starred);
         });
 
     }
@@ -1399,7 +1701,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             throws UniverseContradictionException {
         var t = new int[arg1.size()];
         toTuples(arg1, t);
-
+        if (getHead().xcsp3.removeValues(arg0, t)) {
+            return;
+        }
 
         getHead().xcsp3.addConstraintsToAdd(p -> {
             var y = (Variable) toVar(arg0);
@@ -1419,11 +1723,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         previousList = arg1;
         previousArray = t;
         previousStarred = starred;
+        var compressor = tableCompressor;
         getHead().xcsp3.addConstraintsToAdd(p -> {
             var array = toVarArray(arg0);
             Variable[] scp = Stream.of(array).map(x -> (Variable) x).toArray(Variable[]::new);
 		    var tuple = Stream.of(t).filter(x -> Variable.isValidTuple(scp, x, false)).toArray(int[][]::new);
-            p.extension(array, tuple, false, starred);
+            postExtension(p, compressor, array, tuple, false, starred);
         });
 
     }
@@ -1449,7 +1754,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeExpressionMaximum(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.MAXIMUM, toXnode(arg0), coeffs));
     }
@@ -1463,7 +1768,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeExpressionMinimum(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.MINIMUM, toXnode(arg0), coeffs));
     }
@@ -1477,7 +1782,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeExpressionNValues(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.NVALUES, toXnode(arg0), coeffs));
     }
@@ -1491,7 +1796,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeExpressionProduct(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.PRODUCT, toXnode(arg0), coeffs));
     }
@@ -1505,7 +1810,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeExpressionSum(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.SUM, toXnode(arg0), coeffs));
     }
@@ -1521,7 +1826,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeMaximum(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.MAXIMUM, toVarArray(vars), coeffs));
 
@@ -1538,7 +1843,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeMinimum(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.MINIMUM, toVarArray(vars), coeffs));
 
@@ -1555,7 +1860,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeNValues(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.NVALUES, toVarArray(vars), coeffs));
 
@@ -1572,7 +1877,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeProduct(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.PRODUCT, toVarArray(vars), coeffs));
 
@@ -1588,7 +1893,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void maximizeSum(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximize(TypeObjective.SUM, toVarArray(vars), coeffs));
 
@@ -1620,7 +1925,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeExpressionMaximum(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.MAXIMUM, toXnode(arg0), coeffs));
     }
@@ -1634,7 +1939,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeExpressionMinimum(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.MINIMUM, toXnode(arg0), coeffs));
     }
@@ -1648,7 +1953,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeExpressionNValues(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.NVALUES, toXnode(arg0), coeffs));
     }
@@ -1662,7 +1967,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeExpressionProduct(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.PRODUCT, toXnode(arg0), coeffs));
     }
@@ -1676,7 +1981,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeExpressionSum(List<IUniverseIntensionConstraint> arg0,
             List<BigInteger> arg1) {
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.SUM, toXnode(arg0), coeffs));
     }
@@ -1691,7 +1996,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeMaximum(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.MAXIMUM, toVarArray(vars), coeffs));
     }
@@ -1706,7 +2011,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeMinimum(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.MINIMUM, toVarArray(vars), coeffs));
     }
@@ -1721,7 +2026,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeNValues(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.NVALUES, toVarArray(vars), coeffs));
     }
@@ -1736,7 +2041,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeProduct(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.PRODUCT, toVarArray(vars), coeffs));
     }
@@ -1751,7 +2056,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void minimizeSum(List<String> arg0, List<BigInteger> arg1) {
         List<String> vars = new ArrayList<>(arg0);
-        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = arg1.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimize(TypeObjective.SUM, toVarArray(vars), coeffs));
     }
@@ -1766,181 +2071,639 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
 
         int[] vals = new int[arg1.size()];
         for (int i = 0; i < vals.length; i++) {
-            vals[i] = arg1.get(i).intValue();
+            vals[i] = toDomainValue(arg0, arg1.get(i));
         }
 
-        getHead().xcsp3.addVariableToAdd(arg0, (p, s) -> {
-            var x = p.buildVarInteger(s, new Dom(vals));
-            getHead().xcsp3.imp().varEntities.newVarAloneEntity(s, x, null);
-            return x;
-        });
+        getHead().xcsp3.addIntegerVariableToAdd(arg0, vals);
     }
 
     @Override
     public void newVariable(String arg0, int arg1, int arg2) {
-        getHead().xcsp3.addVariableToAdd(arg0, (p, s) -> {
-            var x = p.buildVarInteger(s, new Dom(arg1, arg2));
-            getHead().xcsp3.imp().varEntities.newVarAloneEntity(s, x, null);
-            return x;
-        });
+        getHead().xcsp3.addIntegerVariableToAdd(arg0, arg1, arg2);
     }
 
     @Override
     public void newVariable(String arg0, BigInteger arg1, BigInteger arg2) {
-        getHead().xcsp3.addVariableToAdd(arg0,
-                (p, s) -> {
-                    var x = p.buildVarInteger(s, new Dom(arg1.intValue(), arg2.intValue()));
-                    getHead().xcsp3.imp().varEntities.newVarAloneEntity(s, x, null);
-                    return x;
-                });
-
-    }
-
-    @Override
-    public void decisionVariables(List<String> variables) {
-        getHead().xcsp3.addConstraintsToAdd(
-                p -> p.annotations.decision = toVariableArray(variables));
+        getHead().xcsp3.addIntegerVariableToAdd(
+                arg0, toDomainValue(arg0, arg1), toDomainValue(arg0, arg2));
     }
 
-    @Override
-	public void valueHeuristicStatic(List<String> vars, List<? extends Number> order) {
-		getHead().xcsp3.addConstraintsToAdd(p->p.staticValHeuristic(toVarArray(vars), toIntArray(order)));
-	}
+    /**
+     * Converts a value of the domain of a variable to an {@code int}, as required by ACE.
+     *
+     * @param variable The name of the variable.
+     * @param value The value to convert.
+     *
+     * @return The converted value.
+     *
+     * @throws IllegalArgumentException If the value does not fit in an {@code int}.
+     */
+    private static int toDomainValue(String variable, Number value) {
+        try {
+            if (value instanceof BigInteger) {
+                return ((BigInteger) value).intValueExact();
+            }
+            return Math.toIntExact(value.longValue());
 
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    "Value " + value + " in the domain of " + variable + " is too large for ACE", e);
+        }
+    }
 
     /**
-     * Creates an array of {@code int} values from a List of {@link Number}.
+     * Creates an array of integer variables sharing the same domain.
+     * The variables are declared as a single array in ACE, and are named
+     * {@code prefix[i][j]...} following XCSP3 conventions.
+     * They are also given consecutive handles following the row-major order of the
+     * array, so that the variable at index {@code k} of the flattened array has handle
+     * {@code first + k}, where {@code first} is the returned handle.
      *
-     * @param values The lists of values to convert.
+     * @param prefix The name of the array.
+     * @param dims The sizes of the dimensions of the array (from 1 to 5 dimensions).
+     * @param min The minimum value of the domains of the variables.
+     * @param max The maximum value of the domains of the variables.
      *
-     * @return The created array.
+     * @return The handle of the first variable of the array.
+     *
+     * @throws IllegalArgumentException If the dimensions are not valid.
      */
-    protected int[] toIntArray(List<? extends Number> values) {
-        return values.stream().mapToInt(Number::intValue).toArray();
+    public int newVariableArray(String prefix, int[] dims, int min, int max) {
+        if ((dims.length == 0) || (dims.length > 5)) {
+            throw new IllegalArgumentException("An array must have from 1 to 5 dimensions");
+        }
+        for (int d : dims) {
+            if (d <= 0) {
+                throw new IllegalArgumentException("The dimensions of an array must be > 0");
+            }
+        }
+        return getHead().xcsp3.addVariableArrayToAdd(prefix, dims, min, max);
     }
 
     /**
-     * Creates a matrix of {@code int} values from a matrix of {@link BigInteger}.
+     * Creates a new integer variable, and gives its handle.
      *
-     * @param values The lists of values to convert.
+     * @param id The name of the variable.
+     * @param min The minimum value of the domain of the variable.
+     * @param max The maximum value of the domain of the variable.
      *
-     * @return The created matrix.
+     * @return The handle of the variable, to be used when posting constraints.
      */
-    private int[][] toIntMatrix(List<List<BigInteger>> values) {
-        return values.stream().map(this::toIntArray).toArray(int[][]::new);
+    public int newVariableHandle(String id, int min, int max) {
+        return getHead().xcsp3.addIntegerVariableToAdd(id, min, max);
     }
 
     /**
-     * Creates an array of {@link Var} from the list of the corresponding variable names.
+     * Adds an all-different constraint on the variables with the given handles.
      *
-     * @param variables The list of variable names to convert.
+     * @param variables The handles of the variables that must be all different.
      *
-     * @return The created array.
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
      */
-    private Var[] toVarArray(List<String> variables) {
-        Var[] vars = new Var[variables.size()];
-        for (int i = 0; i < variables.size(); i++) {
-            vars[i] = (Var) getHead().xcsp3.getVariable(variables.get(i));
-        }
-        return vars;
+    public void addAllDifferent(int[] variables) throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        getHead().xcsp3.addConstraintsToAdd(p -> p.allDifferent(toVarArray(vars)));
     }
 
     /**
-     * Creates a matrix of {@link Var} from the lists of the corresponding variable names.
+     * Adds an all-equal constraint on the variables with the given handles.
      *
-     * @param variables The lists of variable names to convert.
+     * @param variables The handles of the variables that must be all equal.
      *
-     * @return The created matrix.
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
      */
-    private Var[][] toVarMatrix(List<List<String>> variables) {
-        Variable[][] vars = new VariableInteger[variables.size()][];
-        for (int i = 0; i < variables.size(); i++) {
-            vars[i] = toVariableArray(variables.get(i));
-        }
-        return (Var[][]) vars;
+    public void addAllEqual(int[] variables) throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        getHead().xcsp3.addConstraintsToAdd(p -> p.allEqual(toVarArray(vars)));
     }
 
     /**
-     * Creates an array of {@link Variable} from the list of the corresponding variable
-     * names.
+     * Adds a clause on the variables with the given handles.
      *
-     * @param variables The list of variable names to convert.
+     * @param positive The handles of the variables appearing positively in the clause.
+     * @param negative The handles of the variables appearing negatively in the clause.
      *
-     * @return The created array.
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
      */
-    private Variable[] toVariableArray(List<String> variables) {
-        Variable[] vars = new VariableInteger[variables.size()];
-        for (int i = 0; i < variables.size(); i++) {
-            vars[i] = getHead().xcsp3.getVariable(variables.get(i));
-        }
-        return vars;
+    public void addClause(int[] positive, int[] negative) throws UniverseContradictionException {
+        int[] pos = positive.clone();
+        int[] neg = negative.clone();
+        getHead().xcsp3.addConstraintsToAdd(p -> p.clause(toVarArray(pos), toVarArray(neg)));
     }
 
     /**
-     * Gives the {@link Var} with the given name.
+     * Adds a sum constraint on the variables with the given handles.
      *
-     * @param v The name of the variable.
-     * @return The {@link Var} with the given name.
+     * @param variables The handles of the variables appearing in the sum.
+     * @param coefficients The coefficients of the variables in the sum.
+     * @param operator The relational operator used in the constraint.
+     * @param value The value of the right-hand side of the constraint.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
      */
-    private Var toVar(String v) {
-        return (Var) getHead().xcsp3.getVariable(v);
+    public void addSum(int[] variables, int[] coefficients, UniverseRelationalOperator operator,
+            int value) throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        int[] coeffs = coefficients.clone();
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.sum(toVarArray(vars), coeffs, toCondition(operator, value)));
     }
 
     /**
-     * Creates an {@link XNodeParent} representing the given
-     * {@link IUniverseIntensionConstraint}.
+     * Adds a sum constraint on the variables with the given handles.
      *
-     * @param i The intension constraint to convert to an {@link XNodeParent}.
-     * @return The created {@link XNodeParent}.
+     * @param variables The handles of the variables appearing in the sum.
+     * @param coefficients The coefficients of the variables in the sum.
+     * @param operator The set operator used in the constraint.
+     * @param min The minimum value of the set of the right-hand side of the constraint.
+     * @param max The maximum value of the set of the right-hand side of the constraint.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
      */
-    private <T extends XNode<IVar>> T toXnode(IUniverseIntensionConstraint i) {
-        var visitor = new AceIntensionConstraintVisitor(getHead());
-        i.accept(visitor);
-        return visitor.getTree();
+    public void addSum(int[] variables, int[] coefficients, UniverseSetBelongingOperator operator,
+            int min, int max) throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        int[] coeffs = coefficients.clone();
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.sum(toVarArray(vars), coeffs, toCondition(operator, min, max)));
     }
 
     /**
-     * Creates an {@link XNodeParent} array representing the given
-     * {@link IUniverseIntensionConstraint} instances.
+     * Adds an element constraint on the variables with the given handles.
      *
-     * @param i The intension constraints to convert to an {@link XNodeParent}.
-     * @return The created {@link XNodeParent} array.
+     * @param variables The handles of the variables appearing in the constraint.
+     * @param startIndex The index at which the list of variables starts.
+     * @param index The handle of the variable representing the index of the element.
+     * @param operator The relational operator used in the constraint.
+     * @param value The value to compare the element with.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
      */
-    private XNode[] toXnode(List<IUniverseIntensionConstraint> list) {
-        @SuppressWarnings("unchecked")
-        XNode[] tab = new XNode[list.size()];
-        for (int i = 0; i < list.size(); i++) {
-            tab[i] = toXnode(list.get(i));
-        }
-        return tab;
+    public void addElement(int[] variables, int startIndex, int index,
+            UniverseRelationalOperator operator, int value)
+            throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        getHead().xcsp3.addConstraintsToAdd(p -> p.element(toVarArray(vars), startIndex,
+                toVar(index), TypeRank.ANY, toCondition(operator, value)));
     }
 
     /**
-     * Converts a {@link BigInteger} tuple to an {@code int} array.
+     * Adds a minimum constraint on the variables with the given handles.
      *
-     * @param tuple The tuple to convert.
-     * @param t The output array.
-     * @return Whether the tuple contains stars.
+     * @param variables The handles of the variables appearing in the constraint.
+     * @param operator The relational operator used in the constraint.
+     * @param value The value to compare the minimum with.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
      */
-    private boolean toTuples(List<BigInteger> tuple, int[] t) {
-        boolean starred = false;
-        for (int i = 0; i < tuple.size(); i++) {
-            if (tuple.get(i) == null) {
-                starred = true;
-                t[i] = Constants.STAR;
-                continue;
-            }
-            t[i] = tuple.get(i).intValue();
-        }
-        return starred;
+    public void addMinimum(int[] variables, UniverseRelationalOperator operator, int value)
+            throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.minimum(toVarArray(vars), toCondition(operator, value)));
     }
 
     /**
-     * Converts a {@link BigInteger} tuple array to an {@code int} matrix.
+     * Adds a maximum constraint on the variables with the given handles.
      *
-     * @param tuple The tuples to convert.
-     * @param t The output matrix.
-     * @return Whether the tuples contain stars.
+     * @param variables The handles of the variables appearing in the constraint.
+     * @param operator The relational operator used in the constraint.
+     * @param value The value to compare the maximum with.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     */
+    public void addMaximum(int[] variables, UniverseRelationalOperator operator, int value)
+            throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.maximum(toVarArray(vars), toCondition(operator, value)));
+    }
+
+    /**
+     * Adds an ordered constraint on the variables with the given handles.
+     *
+     * @param variables The handles of the variables that must be ordered.
+     * @param operator The relational operator defining the order.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     */
+    public void addOrdered(int[] variables, UniverseRelationalOperator operator)
+            throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        int[] lengths = new int[Math.max(0, vars.length - 1)];
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.ordered(toVarArray(vars), lengths, toOperatorRel(operator)));
+    }
+
+    /**
+     * Adds an instantiation constraint on the variables with the given handles.
+     *
+     * @param variables The handles of the variables to assign.
+     * @param values The values to assign to the variables.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     */
+    public void addInstantiation(int[] variables, int[] values)
+            throws UniverseContradictionException {
+        int[] vars = variables.clone();
+        int[] vals = values.clone();
+        getHead().xcsp3.addConstraintsToAdd(p -> p.instantiation(toVarArray(vars), vals));
+    }
+
+    /**
+     * Adds a table constraint listing the allowed tuples of the variables with the given
+     * handles.
+     * The tuples may contain {@link Constants#STAR_INT} to represent any value.
+     *
+     * @param variables The handles of the variables in the scope of the constraint.
+     * @param tuples The allowed tuples.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     */
+    public void addSupport(int[] variables, int[][] tuples)
+            throws UniverseContradictionException {
+        addExtension(variables, tuples, true);
+    }
+
+    /**
+     * Adds a table constraint listing the forbidden tuples of the variables with the
+     * given handles.
+     * The tuples may contain {@link Constants#STAR_INT} to represent any value.
+     *
+     * @param variables The handles of the variables in the scope of the constraint.
+     * @param tuples The forbidden tuples.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     */
+    public void addConflicts(int[] variables, int[][] tuples)
+            throws UniverseContradictionException {
+        addExtension(variables, tuples, false);
+    }
+
+    /**
+     * Adds a table constraint listing the allowed tuples of the given variables, read from
+     * a binary channel.
+     * The tuples are stored as consecutive big-endian 32-bit integers, and may contain
+     * {@link Constants#STAR_INT} to represent any value.
+     * They are read directly into ACE's representation of tables, without building any
+     * intermediate list.
+     * The channel is not closed by this method.
+     *
+     * @param variables The variables in the scope of the constraint.
+     * @param tuples The channel to read the allowed tuples from.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     * @throws UncheckedIOException If an I/O error occurs while reading the tuples.
+     */
+    public void addSupport(List<String> variables, ReadableByteChannel tuples)
+            throws UniverseContradictionException {
+        addExtension(variables, readTuples(tuples, variables.size()), true);
+    }
+
+    /**
+     * Adds a table constraint listing the forbidden tuples of the given variables, read
+     * from a binary channel.
+     * The tuples are stored as consecutive big-endian 32-bit integers, and may contain
+     * {@link Constants#STAR_INT} to represent any value.
+     * They are read directly into ACE's representation of tables, without building any
+     * intermediate list.
+     * The channel is not closed by this method.
+     *
+     * @param variables The variables in the scope of the constraint.
+     * @param tuples The channel to read the forbidden tuples from.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     * @throws UncheckedIOException If an I/O error occurs while reading the tuples.
+     */
+    public void addConflicts(List<String> variables, ReadableByteChannel tuples)
+            throws UniverseContradictionException {
+        addExtension(variables, readTuples(tuples, variables.size()), false);
+    }
+
+    /**
+     * Adds a table constraint listing the allowed tuples of the given variables, read from
+     * a binary file that is mapped in memory.
+     * The tuples are stored as consecutive big-endian 32-bit integers, and may contain
+     * {@link Constants#STAR_INT} to represent any value.
+     *
+     * @param variables The variables in the scope of the constraint.
+     * @param tuples The path of the file to read the allowed tuples from.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     * @throws UncheckedIOException If an I/O error occurs while reading the tuples.
+     */
+    public void addSupport(List<String> variables, Path tuples)
+            throws UniverseContradictionException {
+        addExtension(variables, readTuples(tuples, variables.size()), true);
+    }
+
+    /**
+     * Adds a table constraint listing the forbidden tuples of the given variables, read
+     * from a binary file that is mapped in memory.
+     * The tuples are stored as consecutive big-endian 32-bit integers, and may contain
+     * {@link Constants#STAR_INT} to represent any value.
+     *
+     * @param variables The variables in the scope of the constraint.
+     * @param tuples The path of the file to read the forbidden tuples from.
+     *
+     * @throws UniverseContradictionException If adding the constraint results in a
+     *         trivial inconsistency.
+     * @throws UncheckedIOException If an I/O error occurs while reading the tuples.
+     */
+    public void addConflicts(List<String> variables, Path tuples)
+            throws UniverseContradictionException {
+        addExtension(variables, readTuples(tuples, variables.size()), false);
+    }
+
+    /**
+     * Reads the tuples of a table from a binary channel.
+     *
+     * @param channel The channel to read the tuples from.
+     * @param arity The number of values in each tuple.
+     *
+     * @return The tuples that have been read.
+     */
+    private static int[][] readTuples(ReadableByteChannel channel, int arity) {
+        try {
+            return AceTableReader.read(channel, arity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the tuples of a table from a binary file.
+     *
+     * @param file The path of the file to read the tuples from.
+     * @param arity The number of values in each tuple.
+     *
+     * @return The tuples that have been read.
+     */
+    private static int[][] readTuples(Path file, int arity) {
+        try {
+            return AceTableReader.read(file, arity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adds a table constraint on the given variables.
+     *
+     * @param variables The variables in the scope of the constraint.
+     * @param tuples The tuples of the table.
+     * @param positive Whether the tuples are allowed (or forbidden).
+     */
+    private void addExtension(List<String> variables, int[][] tuples, boolean positive) {
+        List<String> vars = new ArrayList<>(variables);
+        addExtension(() -> toVarArray(vars), tuples, positive);
+    }
+
+    /**
+     * Posts a table constraint to ACE, after having compressed its table if compression
+     * was enabled when the constraint was added.
+     *
+     * @param p The problem in which to post the constraint.
+     * @param compressor The compressor that was enabled when the constraint was added,
+     *        or {@code null} if compression was disabled.
+     * @param array The variables in the scope of the constraint.
+     * @param tuples The tuples of the table, all valid w.r.t. the domains of the variables.
+     * @param positive Whether the tuples are allowed (or forbidden).
+     * @param starred Whether the tuples contain {@link Constants#STAR_INT}.
+     */
+    private static void postExtension(Problem p, AceTableCompressor compressor, Var[] array,
+            int[][] tuples, boolean positive, boolean starred) {
+        if ((compressor == null) || !positive || starred
+                || !compressor.post(p, array, tuples)) {
+            p.extension(array, tuples, positive, starred);
+        }
+    }
+
+    /**
+     * Adds a table constraint on the variables with the given handles.
+     * Both the handles and the tuples are copied, as the constraint is only posted when
+     * the problem is built.
+     *
+     * @param variables The handles of the variables in the scope of the constraint.
+     * @param tuples The tuples of the table.
+     * @param positive Whether the tuples are allowed (or forbidden).
+     */
+    private void addExtension(int[] variables, int[][] tuples, boolean positive) {
+        int[] vars = variables.clone();
+        int[][] table = Stream.of(tuples).map(int[]::clone).toArray(int[][]::new);
+        addExtension(() -> toVarArray(vars), table, positive);
+    }
+
+    /**
+     * Adds a table constraint on the variables given by a scope.
+     * The scope is only evaluated when the problem is built, after which the tuples that
+     * are not valid w.r.t. the domains of the variables are discarded.
+     *
+     * @param scope The supplier of the variables in the scope of the constraint.
+     * @param tuples The tuples of the table, which must not be modified afterwards.
+     * @param positive Whether the tuples are allowed (or forbidden).
+     */
+    private void addExtension(Supplier<Var[]> scope, int[][] tuples, boolean positive) {
+        boolean starred = Stream.of(tuples).flatMapToInt(IntStream::of)
+                .anyMatch(v -> v == Constants.STAR_INT);
+        var compressor = tableCompressor;
+        getHead().xcsp3.addConstraintsToAdd(p -> {
+            var array = scope.get();
+            Variable[] scp = Stream.of(array).map(x -> (Variable) x).toArray(Variable[]::new);
+            var tuple = Stream.of(tuples).filter(x -> Variable.isValidTuple(scp, x, false))
+                    .toArray(int[][]::new);
+            postExtension(p, compressor, array, tuple, positive, starred);
+        });
+    }
+
+    @Override
+    public void decisionVariables(List<String> variables) {
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.annotations.decision = toVariableArray(variables));
+    }
+
+    @Override
+	public void valueHeuristicStatic(List<String> vars, List<? extends Number> order) {
+		getHead().xcsp3.addConstraintsToAdd(p->p.staticValHeuristic(toVarArray(vars), toIntArray(order)));
+	}
+
+
+    /**
+     * Creates an array of {@code int} values from a List of {@link Number}.
+     *
+     * @param values The lists of values to convert.
+     *
+     * @return The created array.
+     *
+     * @throws ArithmeticException If one of the values does not fit in an {@code int}.
+     */
+    protected int[] toIntArray(List<? extends Number> values) {
+        return values.stream().mapToInt(v -> (v instanceof BigInteger)
+                ? ((BigInteger) v).intValueExact() : Math.toIntExact(v.longValue())).toArray();
+    }
+
+    /**
+     * Creates a matrix of {@code int} values from a matrix of {@link BigInteger}.
+     *
+     * @param values The lists of values to convert.
+     *
+     * @return The created matrix.
+     */
+    private int[][] toIntMatrix(List<List<BigInteger>> values) {
+        return values.stream().map(this::toIntArray).toArray(int[][]::new);
+    }
+
+    /**
+     * Creates an array of {@link Var} from the list of the corresponding variable names.
+     *
+     * @param variables The list of variable names to convert.
+     *
+     * @return The created array.
+     */
+    private Var[] toVarArray(List<String> variables) {
+        Var[] vars = new Var[variables.size()];
+        for (int i = 0; i < variables.size(); i++) {
+            vars[i] = (Var) getHead().xcsp3.getVariable(variables.get(i));
+        }
+        return vars;
+    }
+
+    /**
+     * Creates a matrix of {@link Var} from the lists of the corresponding variable names.
+     *
+     * @param variables The lists of variable names to convert.
+     *
+     * @return The created matrix.
+     */
+    private Var[][] toVarMatrix(List<List<String>> variables) {
+        Variable[][] vars = new VariableInteger[variables.size()][];
+        for (int i = 0; i < variables.size(); i++) {
+            vars[i] = toVariableArray(variables.get(i));
+        }
+        return (Var[][]) vars;
+    }
+
+    /**
+     * Creates an array of {@link Variable} from the list of the corresponding variable
+     * names.
+     *
+     * @param variables The list of variable names to convert.
+     *
+     * @return The created array.
+     */
+    private Variable[] toVariableArray(List<String> variables) {
+        Variable[] vars = new VariableInteger[variables.size()];
+        for (int i = 0; i < variables.size(); i++) {
+            vars[i] = getHead().xcsp3.getVariable(variables.get(i));
+        }
+        return vars;
+    }
+
+    /**
+     * Creates an array of {@link Var} from the handles of the corresponding variables.
+     *
+     * @param handles The handles of the variables to convert.
+     *
+     * @return The created array.
+     */
+    private Var[] toVarArray(int[] handles) {
+        Var[] vars = new Var[handles.length];
+        for (int i = 0; i < handles.length; i++) {
+            vars[i] = (Var) getHead().xcsp3.getVariable(handles[i]);
+        }
+        return vars;
+    }
+
+    /**
+     * Gives the {@link Var} with the given handle.
+     *
+     * @param handle The handle of the variable.
+     * @return The {@link Var} with the given handle.
+     */
+    private Var toVar(int handle) {
+        return (Var) getHead().xcsp3.getVariable(handle);
+    }
+
+    /**
+     * Gives the {@link Var} with the given name.
+     *
+     * @param v The name of the variable.
+     * @return The {@link Var} with the given name.
+     */
+    private Var toVar(String v) {
+        return (Var) getHead().xcsp3.getVariable(v);
+    }
+
+    /**
+     * Creates an {@link XNodeParent} representing the given
+     * {@link IUniverseIntensionConstraint}.
+     *
+     * @param i The intension constraint to convert to an {@link XNodeParent}.
+     * @return The created {@link XNodeParent}.
+     */
+    private <T extends XNode<IVar>> T toXnode(IUniverseIntensionConstraint i) {
+        var visitor = new AceIntensionConstraintVisitor(getHead());
+        i.accept(visitor);
+        return visitor.getTree();
+    }
+
+    /**
+     * Creates an {@link XNodeParent} array representing the given
+     * {@link IUniverseIntensionConstraint} instances.
+     *
+     * @param i The intension constraints to convert to an {@link XNodeParent}.
+     * @return The created {@link XNodeParent} array.
+     */
+    private XNode[] toXnode(List<IUniverseIntensionConstraint> list) {
+        @SuppressWarnings("unchecked")
+        XNode[] tab = new XNode[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            tab[i] = toXnode(list.get(i));
+        }
+        return tab;
+    }
+
+    /**
+     * Converts a {@link BigInteger} tuple to an {@code int} array.
+     *
+     * @param tuple The tuple to convert.
+     * @param t The output array.
+     * @return Whether the tuple contains stars.
+     */
+    private boolean toTuples(List<BigInteger> tuple, int[] t) {
+        boolean starred = false;
+        for (int i = 0; i < tuple.size(); i++) {
+            if (tuple.get(i) == null) {
+                starred = true;
+                t[i] = Constants.STAR;
+                continue;
+            }
+            t[i] = tuple.get(i).intValueExact();
+        }
+        return starred;
+    }
+
+    /**
+     * Converts a {@link BigInteger} tuple array to an {@code int} matrix.
+     *
+     * @param tuple The tuples to convert.
+     * @param t The output matrix.
+     * @return Whether the tuples contain stars.
      */
     private boolean toTuples(List<List<BigInteger>> tuples, int[][] t) {
         boolean starred = false;
@@ -1950,6 +2713,16 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         return starred;
     }
 
+    /**
+     * Converts an {@code int} array to a list of {@link BigInteger}.
+     *
+     * @param values The values to convert.
+     * @return The list of converted values.
+     */
+    private static List<BigInteger> toBigIntegers(int[] values) {
+        return IntStream.of(values).mapToObj(BigInteger::valueOf).collect(Collectors.toList());
+    }
+
     /**
      * Creates a {@link Condition} from universe types.
      *
@@ -2023,6 +2796,50 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         return new ConditionIntset(toOperator(op), toIntArray(values));
     }
 
+    /**
+     * Creates a {@link Condition} from universe types, to be used on a global constraint
+     * computing a value (such as a sum).
+     * When the value must belong to the interval, the condition is expressed as an
+     * equality with an auxiliary variable having this interval as domain, so that ACE
+     * does not need to post the constraint twice (once for each bound).
+     *
+     * @param p The problem in which to create the auxiliary variable.
+     * @param op The operator of the condition.
+     * @param min The minimum value of the interval.
+     * @param max The maximum value of the interval.
+     *
+     * @return The created condition.
+     */
+    private static Condition toCondition(Problem p, UniverseSetBelongingOperator op, int min,
+            int max) {
+        if (op == UniverseSetBelongingOperator.NOT_IN) {
+            return new ConditionIntvl(TypeConditionOperatorSet.NOTIN, min, max);
+        }
+        return new ConditionVar(TypeConditionOperatorRel.EQ,
+                newAuxiliaryVariable(p, new Dom(min, max)));
+    }
+
+    /**
+     * Creates a {@link Condition} from universe types, to be used on a global constraint
+     * computing a value (such as a sum).
+     * When the value must belong to the set, the condition is expressed as an equality
+     * with an auxiliary variable having this set as domain.
+     *
+     * @param p The problem in which to create the auxiliary variable.
+     * @param op The operator of the condition.
+     * @param values The values of the set.
+     *
+     * @return The created condition.
+     */
+    private static Condition toCondition(Problem p, UniverseSetBelongingOperator op,
+            List<BigInteger> values) {
+        int[] set = values.stream().mapToInt(BigInteger::intValueExact).sorted().distinct().toArray();
+        if (op == UniverseSetBelongingOperator.NOT_IN) {
+            return new ConditionIntset(TypeConditionOperatorSet.NOTIN, set);
+        }
+        return new ConditionVar(TypeConditionOperatorRel.EQ, newAuxiliaryVariable(p, new Dom(set)));
+    }
+
     /**
      * Gives the {@link TypeConditionOperatorRel} corresponding to the given operator.
      *
@@ -2042,7 +2859,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public Map<String, IUniverseVariable> getVariablesMapping() {
         getHead().buildProblem(0);
         var map = new HashMap<String, IUniverseVariable>();
-        for (var variable : getHead().xcsp3.mapping.values()) {
+        for (var variable : getHead().xcsp3.getVariables()) {
             map.put(variable.id(), new JUniverseVariableAceAdapter(variable));
         }
         return map;
@@ -2056,17 +2873,17 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         Arrays.fill(coeffs, 1);
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.sum(toVarArray(vars), coeffs,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
     }
 
     @Override
     public void addSum(List<String> variables, List<BigInteger> coefficients,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
         List<String> vars = new ArrayList<>(variables);
-        int[] coeffs = coefficients.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = coefficients.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.sum(toVarArray(vars), coeffs,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2086,7 +2903,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addSum(List<String> variables, List<BigInteger> coefficients,
             UniverseSetBelongingOperator operator, List<BigInteger> values) {
         List<String> vars = new ArrayList<>(variables);
-        int[] coeffs = coefficients.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = coefficients.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.sum(toVarArray(vars), coeffs,
                         toCondition(operator, values)));
@@ -2100,7 +2917,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         Arrays.fill(coeffs, 1);
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.sum(toXnode(intensionConstraints), coeffs,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2108,10 +2925,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addSumIntension(List<IUniverseIntensionConstraint> intensionConstraints,
             List<BigInteger> coefficients, UniverseSetBelongingOperator operator, BigInteger min,
             BigInteger max) {
-        int[] coeffs = coefficients.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = coefficients.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.sum(toXnode(intensionConstraints), coeffs,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2130,7 +2947,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addSumIntension(List<IUniverseIntensionConstraint> intensionConstraints,
             List<BigInteger> coefficients, UniverseSetBelongingOperator operator,
             List<BigInteger> values) {
-        int[] coeffs = coefficients.stream().mapToInt(BigInteger::intValue).toArray();
+        int[] coeffs = coefficients.stream().mapToInt(BigInteger::intValueExact).toArray();
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.sum(toXnode(intensionConstraints), coeffs,
                         toCondition(operator, values)));
@@ -2143,7 +2960,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
         List<String> vars = new ArrayList<>(variables);
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.sum(toVarArray(vars), toVarArray(coefficients),
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2161,32 +2978,77 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addSumIntensionWithVariableCoefficients(
             List<IUniverseIntensionConstraint> intensionConstraints, List<String> coefficients,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        throw new UnsupportedOperationException();
-
+        List<IUniverseIntensionConstraint> terms = new ArrayList<>(intensionConstraints);
+        List<String> coeffs = new ArrayList<>(coefficients);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.sum(toTermVariables(p, toXnode(terms)), toVarArray(coeffs),
+                        toCondition(p, operator, min.intValueExact(), max.intValueExact())));
     }
 
     @Override
     public void addSumIntensionWithVariableCoefficients(
             List<IUniverseIntensionConstraint> intensionConstraints, List<String> coefficients,
             UniverseSetBelongingOperator operator, List<BigInteger> values) {
-        throw new UnsupportedOperationException();
-
+        List<IUniverseIntensionConstraint> terms = new ArrayList<>(intensionConstraints);
+        List<String> coeffs = new ArrayList<>(coefficients);
+        List<BigInteger> set = new ArrayList<>(values);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.sum(toTermVariables(p, toXnode(terms)), toVarArray(coeffs),
+                        toCondition(p, operator, set)));
     }
 
     @Override
     public void addSumIntensionWithVariableCoefficients(List<IUniverseIntensionConstraint> arg0,
             List<String> arg1, UniverseRelationalOperator arg2, BigInteger arg3)
             throws UniverseContradictionException {
-        throw new UnsupportedOperationException();
-
+        List<IUniverseIntensionConstraint> terms = new ArrayList<>(arg0);
+        List<String> coeffs = new ArrayList<>(arg1);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.sum(toTermVariables(p, toXnode(terms)), toVarArray(coeffs),
+                        toCondition(arg2, arg3.intValueExact())));
     }
 
     @Override
     public void addSumIntensionWithVariableCoefficients(List<IUniverseIntensionConstraint> arg0,
             List<String> arg1, UniverseRelationalOperator arg2, String arg3)
             throws UniverseContradictionException {
-        throw new UnsupportedOperationException();
+        List<IUniverseIntensionConstraint> terms = new ArrayList<>(arg0);
+        List<String> coeffs = new ArrayList<>(arg1);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.sum(toTermVariables(p, toXnode(terms)), toVarArray(coeffs),
+                        toCondition(arg2, arg3)));
+    }
 
+    /**
+     * Gives the variables representing the terms of a sum.
+     * A term that is a variable is represented by this variable, while any other term
+     * is replaced by an auxiliary variable.
+     * Equal terms share the same auxiliary variable, even when they appear in different
+     * constraints.
+     *
+     * @param p The problem in which the sum is posted.
+     * @param terms The terms of the sum.
+     *
+     * @return The variables representing the terms.
+     */
+    private Var[] toTermVariables(Problem p, XNode<IVar>[] terms) {
+        if (p != termsProblem) {
+            // The auxiliary variables of another problem cannot be reused.
+            termsProblem = p;
+            termVariables.clear();
+        }
+
+        Var[] vars = new Var[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            XNode<IVar> term = terms[i];
+            if (term.type == TypeExpr.VAR) {
+                vars[i] = (Var) term.var(0);
+            } else {
+                vars[i] = termVariables.computeIfAbsent(term.toString(),
+                        k -> (Var) p.replaceByVariable(term));
+            }
+        }
+        return vars;
     }
 
     /*
@@ -2259,7 +3121,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addFlow(List<String> list, List<BigInteger> balance, List<List<BigInteger>> edges,
             List<BigInteger> weights, UniverseRelationalOperator operator, BigInteger value) {
         getHead().xcsp3.addConstraintsToAdd(p -> p.flow(toVarArray(list), toIntArray(balance),
-                toIntMatrix(edges), toIntArray(weights), toCondition(operator, value.intValue())));
+                toIntMatrix(edges), toIntArray(weights), toCondition(operator, value.intValueExact())));
 
     }
 
@@ -2301,7 +3163,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator pOperator, BigInteger pValue) {
         getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(list), toIntArray(weights),
                 toCondition(wOperator, wVariable), toIntArray(profits),
-                toCondition(pOperator, pValue.intValue())));
+                toCondition(pOperator, pValue.intValueExact())));
 
     }
 
@@ -2321,7 +3183,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator wOperator, BigInteger wValue, List<BigInteger> profits,
             UniverseRelationalOperator pOperator, String pVariable) {
         getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(list), toIntArray(weights),
-                toCondition(wOperator, wValue.intValue()), toIntArray(profits),
+                toCondition(wOperator, wValue.intValueExact()), toIntArray(profits),
                 toCondition(pOperator, pVariable)));
 
     }
@@ -2342,8 +3204,8 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator wOperator, BigInteger wValue, List<BigInteger> profits,
             UniverseRelationalOperator pOperator, BigInteger pValue) {
         getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(list), toIntArray(weights),
-                toCondition(wOperator, wValue.intValue()), toIntArray(profits),
-                toCondition(pOperator, pValue.intValue())));
+                toCondition(wOperator, wValue.intValueExact()), toIntArray(profits),
+                toCondition(pOperator, pValue.intValueExact())));
 
     }
 
@@ -2431,7 +3293,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addCircuit(List<String> list, int startIndex, BigInteger size) {
         getHead().xcsp3.addConstraintsToAdd(
-                p -> p.circuit(toVarArray(list), startIndex, size.intValue()));
+                p -> p.circuit(toVarArray(list), startIndex, size.intValueExact()));
 
     }
 
@@ -2506,7 +3368,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.element(toVarArray(variables),
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2523,7 +3385,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.element(toIntArray(values), startIndex, toVar(index), TypeRank.ANY,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2541,7 +3403,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.element(toVarArray(variables), startIndex, toVar(index), TypeRank.ANY,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2560,7 +3422,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.element(toIntMatrix(matrix), startRowIndex, toVar(rowIndex), startColIndex,
-                        toVar(colIndex), toCondition(operator, min.intValue(), max.intValue())));
+                        toVar(colIndex), toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2580,7 +3442,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.element(toVarMatrix(matrix), startRowIndex, toVar(rowIndex), startColIndex,
-                        toVar(colIndex), toCondition(operator, min.intValue(), max.intValue())));
+                        toVar(colIndex), toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2599,7 +3461,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             BigInteger value) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximumArg(toVarArray(variables), TypeRank.ANY,
-                        toCondition(operator, value.intValue())));
+                        toCondition(operator, value.intValueExact())));
 
     }
 
@@ -2617,7 +3479,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             BigInteger value) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimumArg(toVarArray(variables), TypeRank.ANY,
-                        toCondition(operator, value.intValue())));
+                        toCondition(operator, value.intValueExact())));
 
     }
 
@@ -2635,7 +3497,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator operator, BigInteger value) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximumArg(toXnode(variables), TypeRank.ANY,
-                        toCondition(operator, value.intValue())));
+                        toCondition(operator, value.intValueExact())));
 
     }
 
@@ -2653,7 +3515,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseRelationalOperator operator, BigInteger value) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimumArg(toXnode(variables), TypeRank.ANY,
-                        toCondition(operator, value.intValue())));
+                        toCondition(operator, value.intValueExact())));
 
     }
 
@@ -2671,7 +3533,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximumArg(toVarArray(variables), TypeRank.ANY,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2688,7 +3550,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimumArg(toVarArray(variables), TypeRank.ANY,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2705,7 +3567,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.maximumArg(toXnode(variables), TypeRank.ANY,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2722,7 +3584,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
         getHead().xcsp3.addConstraintsToAdd(
                 p -> p.minimumArg(toXnode(variables), TypeRank.ANY,
-                        toCondition(operator, min.intValue(), max.intValue())));
+                        toCondition(operator, min.intValueExact(), max.intValueExact())));
 
     }
 
@@ -2743,8 +3605,8 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
      */
     @Override
     public void newVariableSymbolic(String id, List<String> values) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        int size = symbols.declare(id, values);
+        getHead().xcsp3.addIntegerVariableToAdd(id, 0, size - 1);
     }
 
     /*
@@ -2756,8 +3618,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
      */
     @Override
     public void addInstantiationSymbolic(String variable, String value) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        int code = symbols.encode(variable, value);
+        if (code < 0) {
+            throw new UniverseContradictionException(
+                    value + " is not in the domain of " + variable);
+        }
+        addInstantiation(variable, code);
     }
 
     /*
@@ -2769,8 +3635,16 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
      */
     @Override
     public void addInstantiationSymbolic(List<String> variables, List<String> values) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<Integer> codes = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            int code = symbols.encode(variables.get(i), values.get(i));
+            if (code < 0) {
+                throw new UniverseContradictionException(
+                        values.get(i) + " is not in the domain of " + variables.get(i));
+            }
+            codes.add(code);
+        }
+        addInstantiation(variables, codes);
     }
 
     /*
@@ -2799,8 +3673,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addCountWithConstantValues(List<String> variables, List<BigInteger> values,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] vals = toIntArray(values);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.count(toVarArray(vars), vals,
+                toCondition(p, operator, min.intValueExact(), max.intValueExact())));
     }
 
     /*
@@ -2815,8 +3691,11 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addCountWithConstantValues(List<String> variables, List<BigInteger> values,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] vals = toIntArray(values);
+        List<BigInteger> counts = new ArrayList<>(set);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.count(toVarArray(vars), vals, toCondition(p, operator, counts)));
     }
 
     /*
@@ -2831,8 +3710,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addCountWithVariableValues(List<String> variables, List<String> values,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<String> vals = new ArrayList<>(values);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.count(toVarArray(vars), toVarArray(vals),
+                toCondition(p, operator, min.intValueExact(), max.intValueExact())));
     }
 
     /*
@@ -2847,8 +3728,11 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addCountWithVariableValues(List<String> variables, List<String> values,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<String> vals = new ArrayList<>(values);
+        List<BigInteger> counts = new ArrayList<>(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.count(toVarArray(vars), toVarArray(vals),
+                toCondition(p, operator, counts)));
     }
 
     /*
@@ -2863,8 +3747,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCountIntensionWithConstantValues(List<IUniverseIntensionConstraint> expressions,
             List<BigInteger> values, UniverseSetBelongingOperator operator, BigInteger min,
             BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<IUniverseIntensionConstraint> exprs = new ArrayList<>(expressions);
+        int[] vals = toIntArray(values);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.count(toXnode(exprs), vals,
+                toCondition(p, operator, min.intValueExact(), max.intValueExact())));
     }
 
     /*
@@ -2878,8 +3764,11 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addCountIntensionWithConstantValues(List<IUniverseIntensionConstraint> expressions,
             List<BigInteger> values, UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<IUniverseIntensionConstraint> exprs = new ArrayList<>(expressions);
+        int[] vals = toIntArray(values);
+        List<BigInteger> counts = new ArrayList<>(set);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.count(toXnode(exprs), vals, toCondition(p, operator, counts)));
     }
 
     /*
@@ -2892,8 +3781,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addNValues(List<String> variables, UniverseSetBelongingOperator operator,
             BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.nValues(toVarArray(vars),
+                toCondition(p, operator, min.intValueExact(), max.intValueExact())));
     }
 
     /*
@@ -2907,8 +3797,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addNValuesExcept(List<String> variables, UniverseSetBelongingOperator operator,
             BigInteger min, BigInteger max, List<BigInteger> except) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] exceptions = toIntArray(except);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.nValues(toVarArray(vars),
+                toCondition(p, operator, min.intValueExact(), max.intValueExact()), exceptions));
     }
 
     /*
@@ -2921,8 +3813,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addNValues(List<String> variables, UniverseSetBelongingOperator operator,
             List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> counts = new ArrayList<>(set);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.nValues(toVarArray(vars), toCondition(p, operator, counts)));
     }
 
     /*
@@ -2936,8 +3830,11 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addNValuesExcept(List<String> variables, UniverseSetBelongingOperator operator,
             List<BigInteger> set, List<BigInteger> except) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> counts = new ArrayList<>(set);
+        int[] exceptions = toIntArray(except);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.nValues(toVarArray(vars),
+                toCondition(p, operator, counts), exceptions));
     }
 
     /*
@@ -2951,8 +3848,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addNValuesIntension(List<IUniverseIntensionConstraint> expressions,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<IUniverseIntensionConstraint> exprs = new ArrayList<>(expressions);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.nValues(toXnode(exprs),
+                toCondition(p, operator, min.intValueExact(), max.intValueExact())));
     }
 
     /*
@@ -2966,8 +3864,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addNValuesIntension(List<IUniverseIntensionConstraint> expressions,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<IUniverseIntensionConstraint> exprs = new ArrayList<>(expressions);
+        List<BigInteger> counts = new ArrayList<>(set);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.nValues(toXnode(exprs), toCondition(p, operator, counts)));
     }
 
     /*
@@ -2982,8 +3882,53 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addBinPacking(List<String> variables, List<BigInteger> sizes,
             UniverseRelationalOperator operator, BigInteger value) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] s = toIntArray(sizes);
+        int v = value.intValueExact();
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> postBinPacking(p, toVarArray(vars), s, -1,
+                        (items, itemSizes) -> p.binpacking(items, itemSizes,
+                                toLoadCondition(operator, v, itemSizes))));
+    }
+
+    /**
+     * Creates the {@link Condition} to apply on the load of each bin of a bin-packing
+     * constraint.
+     * ACE's bin-packing propagator only supports {@code <} and {@code <=} on a constant,
+     * so other operators are expressed as set conditions, for which ACE posts one sum
+     * per bin.
+     *
+     * @param op The operator of the condition.
+     * @param value The value of the condition.
+     * @param sizes The sizes of the items.
+     *
+     * @return The created condition.
+     */
+    private Condition toLoadCondition(UniverseRelationalOperator op, int value, int[] sizes) {
+        int total = (int) Math.min(Integer.MAX_VALUE, IntStream.of(sizes).asLongStream().sum());
+        switch (op) {
+            case LT:
+            case LE:
+                return toCondition(op, value);
+
+            case EQ:
+                return new ConditionIntvl(TypeConditionOperatorSet.IN, value, value);
+
+            case GE:
+                return new ConditionIntvl(
+                        TypeConditionOperatorSet.IN, value, Math.max(value, total));
+
+            case GT:
+                if (value == Integer.MAX_VALUE) {
+                    throw new UniverseContradictionException(
+                            "The load of a bin cannot be greater than " + value);
+                }
+                return new ConditionIntvl(
+                        TypeConditionOperatorSet.IN, value + 1, Math.max(value + 1, total));
+
+            default:
+                return new ConditionIntset(TypeConditionOperatorSet.NOTIN, new int[] { value });
+        }
     }
 
     /*
@@ -2998,8 +3943,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addBinPacking(List<String> variables, List<BigInteger> sizes,
             UniverseRelationalOperator operator, String variable) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] s = toIntArray(sizes);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> postBinPacking(p, toVarArray(vars), s, -1,
+                        (items, itemSizes) -> p.binpacking(items, itemSizes,
+                                toCondition(operator, variable))));
     }
 
     /*
@@ -3014,8 +3963,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addBinPacking(List<String> variables, List<BigInteger> sizes,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] s = toIntArray(sizes);
+        var condition = toCondition(operator, min.intValueExact(), max.intValueExact());
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> postBinPacking(p, toVarArray(vars), s, -1,
+                        (items, itemSizes) -> p.binpacking(items, itemSizes, condition)));
     }
 
     /*
@@ -3030,8 +3983,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addBinPacking(List<String> variables, List<BigInteger> sizes,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] s = toIntArray(sizes);
+        var condition = toCondition(operator, set);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> postBinPacking(p, toVarArray(vars), s, -1,
+                        (items, itemSizes) -> p.binpacking(items, itemSizes, condition)));
     }
 
     /*
@@ -3044,22 +4001,84 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addBinPackingWithConstantCapacities(List<String> variables, List<BigInteger> sizes,
             List<BigInteger> capacities, boolean loads) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] s = toIntArray(sizes);
+        int[] c = toIntArray(capacities);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> postBinPacking(p, toVarArray(vars), s, c.length,
+                        (items, itemSizes) -> p.binpacking(items, itemSizes, c, loads)));
     }
 
-    /*
-     * (non-Javadoc)
-     *
-     * @see fr.univartois.cril.juniverse.csp.IUniverseCSPSolver#
-     * addBinPackingWithVariableCapacities(java.util.List, java.util.List, java.util.List,
-     * boolean)
-     */
-    @Override
-    public void addBinPackingWithVariableCapacities(List<String> variables, List<BigInteger> sizes,
-            List<String> capacities, boolean loads) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+    /*
+     * (non-Javadoc)
+     *
+     * @see fr.univartois.cril.juniverse.csp.IUniverseCSPSolver#
+     * addBinPackingWithVariableCapacities(java.util.List, java.util.List, java.util.List,
+     * boolean)
+     */
+    @Override
+    public void addBinPackingWithVariableCapacities(List<String> variables, List<BigInteger> sizes,
+            List<String> capacities, boolean loads) {
+        List<String> vars = new ArrayList<>(variables);
+        List<String> caps = new ArrayList<>(capacities);
+        int[] s = toIntArray(sizes);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> {
+                    Var[] c = toVarArray(caps);
+                    postBinPacking(p, toVarArray(vars), s, c.length,
+                            (items, itemSizes) -> p.binpacking(items, itemSizes, c, loads));
+                });
+    }
+
+    /**
+     * Posts a bin-packing constraint, after having checked the preconditions ACE
+     * enforces on it (ACE stops the whole JVM when they are not satisfied).
+     * As ACE requires more than two items, smaller lists of items are completed with
+     * items of size {@code 0}, whose bin is fixed to one of the bins of the actual
+     * items.
+     *
+     * @param p The problem to post the constraint in.
+     * @param items The variables giving the bins of the items.
+     * @param sizes The sizes of the items.
+     * @param nbBins The number of bins, when the bins are numbered from {@code 0}
+     *        (or {@code -1} if the bins are given by the domains of the items).
+     * @param binPacking The function posting the constraint on the (completed) items
+     *        and sizes.
+     *
+     * @throws IllegalArgumentException If the numbers of items and sizes differ, or if
+     *         an item may be put in a bin that does not exist.
+     */
+    private static void postBinPacking(Problem p, Var[] items, int[] sizes, int nbBins,
+            BiConsumer<Var[], int[]> binPacking) {
+        if (items.length != sizes.length) {
+            throw new IllegalArgumentException("There are " + items.length + " items but "
+                    + sizes.length + " sizes in a bin-packing constraint");
+        }
+
+        for (var item : items) {
+            var dom = ((Variable) item).dom;
+            if ((nbBins >= 0) && ((dom.firstValue() < 0) || (dom.lastValue() >= nbBins))) {
+                throw new IllegalArgumentException("The bin of " + item.id()
+                        + " must be between 0 and " + (nbBins - 1));
+            }
+        }
+
+        if (items.length == 0) {
+            // There is no item to put in the bins.
+            return;
+        }
+
+        if (items.length < MIN_BIN_PACKING_ITEMS) {
+            int bin = ((Variable) items[0]).dom.firstValue();
+            Var[] padded = Arrays.copyOf(items, MIN_BIN_PACKING_ITEMS);
+            for (int i = items.length; i < padded.length; i++) {
+                padded[i] = newAuxiliaryVariable(p, new Dom(bin, bin));
+            }
+            binPacking.accept(padded, Arrays.copyOf(sizes, MIN_BIN_PACKING_ITEMS));
+            return;
+        }
+
+        binPacking.accept(items, sizes);
     }
 
     /*
@@ -3075,8 +4094,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeConstantLengthsConstantHeights(List<String> origins,
             List<BigInteger> lengths, List<BigInteger> heights,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        int[] l = toIntArray(lengths);
+        int[] h = toIntArray(heights);
+        int[] capacities = { min.intValueExact(), max.intValueExact() };
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), l, null, h,
+                operator, capacities, true));
     }
 
     /*
@@ -3092,8 +4115,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeConstantLengthsConstantHeights(List<String> origins,
             List<BigInteger> lengths, List<String> ends, List<BigInteger> heights,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        int[] l = toIntArray(lengths);
+        List<String> e = new ArrayList<>(ends);
+        int[] h = toIntArray(heights);
+        int[] capacities = { min.intValueExact(), max.intValueExact() };
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), l, toVarArray(e), h,
+                operator, capacities, true));
     }
 
     /*
@@ -3109,8 +4137,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeConstantLengthsConstantHeights(List<String> origins,
             List<BigInteger> lengths, List<BigInteger> heights,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        int[] l = toIntArray(lengths);
+        int[] h = toIntArray(heights);
+        int[] capacities = toIntArray(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), l, null, h,
+                operator, capacities, false));
     }
 
     /*
@@ -3126,8 +4158,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeConstantLengthsConstantHeights(List<String> origins,
             List<BigInteger> lengths, List<String> ends, List<BigInteger> heights,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        int[] l = toIntArray(lengths);
+        List<String> e = new ArrayList<>(ends);
+        int[] h = toIntArray(heights);
+        int[] capacities = toIntArray(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), l, toVarArray(e), h,
+                operator, capacities, false));
     }
 
     /*
@@ -3143,8 +4180,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeConstantLengthsVariableHeights(List<String> origins,
             List<BigInteger> lengths, List<String> heights,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        int[] l = toIntArray(lengths);
+        List<String> h = new ArrayList<>(heights);
+        int[] capacities = { min.intValueExact(), max.intValueExact() };
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), l, null, toVarArray(h),
+                operator, capacities, true));
     }
 
     /*
@@ -3160,8 +4201,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeConstantLengthsVariableHeights(List<String> origins,
             List<BigInteger> lengths, List<String> ends, List<String> heights,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        int[] l = toIntArray(lengths);
+        List<String> e = new ArrayList<>(ends);
+        List<String> h = new ArrayList<>(heights);
+        int[] capacities = { min.intValueExact(), max.intValueExact() };
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), l, toVarArray(e), toVarArray(h),
+                operator, capacities, true));
     }
 
     /*
@@ -3177,8 +4223,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeConstantLengthsVariableHeights(List<String> origins,
             List<BigInteger> lengths, List<String> heights,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        int[] l = toIntArray(lengths);
+        List<String> h = new ArrayList<>(heights);
+        int[] capacities = toIntArray(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), l, null, toVarArray(h),
+                operator, capacities, false));
     }
 
     /*
@@ -3194,8 +4244,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeConstantLengthsVariableHeights(List<String> origins,
             List<BigInteger> lengths, List<String> ends, List<String> heights,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        int[] l = toIntArray(lengths);
+        List<String> e = new ArrayList<>(ends);
+        List<String> h = new ArrayList<>(heights);
+        int[] capacities = toIntArray(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), l, toVarArray(e), toVarArray(h),
+                operator, capacities, false));
     }
 
     /*
@@ -3211,8 +4266,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeVariableLengthsConstantHeights(List<String> origins,
             List<String> lengths, List<BigInteger> heights, UniverseSetBelongingOperator operator,
             BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        List<String> l = new ArrayList<>(lengths);
+        int[] h = toIntArray(heights);
+        int[] capacities = { min.intValueExact(), max.intValueExact() };
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), toVarArray(l), null, h,
+                operator, capacities, true));
     }
 
     /*
@@ -3228,8 +4287,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeVariableLengthsConstantHeights(List<String> origins,
             List<String> lengths, List<String> ends, List<BigInteger> heights,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        List<String> l = new ArrayList<>(lengths);
+        List<String> e = new ArrayList<>(ends);
+        int[] h = toIntArray(heights);
+        int[] capacities = { min.intValueExact(), max.intValueExact() };
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), toVarArray(l), toVarArray(e), h,
+                operator, capacities, true));
     }
 
     /*
@@ -3245,8 +4309,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeVariableLengthsConstantHeights(List<String> origins,
             List<String> lengths, List<BigInteger> heights, UniverseSetBelongingOperator operator,
             List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        List<String> l = new ArrayList<>(lengths);
+        int[] h = toIntArray(heights);
+        int[] capacities = toIntArray(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), toVarArray(l), null, h,
+                operator, capacities, false));
     }
 
     /*
@@ -3262,8 +4330,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeVariableLengthsConstantHeights(List<String> origins,
             List<String> lengths, List<String> ends, List<BigInteger> heights,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        List<String> l = new ArrayList<>(lengths);
+        List<String> e = new ArrayList<>(ends);
+        int[] h = toIntArray(heights);
+        int[] capacities = toIntArray(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), toVarArray(l), toVarArray(e), h,
+                operator, capacities, false));
     }
 
     /*
@@ -3279,8 +4352,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeVariableLengthsVariableHeights(List<String> origins,
             List<String> lengths, List<String> heights, UniverseSetBelongingOperator operator,
             BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        List<String> l = new ArrayList<>(lengths);
+        List<String> h = new ArrayList<>(heights);
+        int[] capacities = { min.intValueExact(), max.intValueExact() };
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), toVarArray(l), null, toVarArray(h),
+                operator, capacities, true));
     }
 
     /*
@@ -3296,8 +4373,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeVariableLengthsVariableHeights(List<String> origins,
             List<String> lengths, List<String> ends, List<String> heights,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        List<String> l = new ArrayList<>(lengths);
+        List<String> e = new ArrayList<>(ends);
+        List<String> h = new ArrayList<>(heights);
+        int[] capacities = { min.intValueExact(), max.intValueExact() };
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), toVarArray(l), toVarArray(e), toVarArray(h),
+                operator, capacities, true));
     }
 
     /*
@@ -3313,8 +4395,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeVariableLengthsVariableHeights(List<String> origins,
             List<String> lengths, List<String> heights, UniverseSetBelongingOperator operator,
             List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        List<String> l = new ArrayList<>(lengths);
+        List<String> h = new ArrayList<>(heights);
+        int[] capacities = toIntArray(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), toVarArray(l), null, toVarArray(h),
+                operator, capacities, false));
     }
 
     /*
@@ -3330,8 +4416,182 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addCumulativeVariableLengthsVariableHeights(List<String> origins,
             List<String> lengths, List<String> ends, List<String> heights,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> o = new ArrayList<>(origins);
+        List<String> l = new ArrayList<>(lengths);
+        List<String> e = new ArrayList<>(ends);
+        List<String> h = new ArrayList<>(heights);
+        int[] capacities = toIntArray(set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postCumulative(p, toVarArray(o), toVarArray(l), toVarArray(e), toVarArray(h),
+                operator, capacities, false));
+    }
+
+    /**
+     * Posts a cumulative constraint whose load must belong (or not) to a set of values.
+     * As for any cumulative constraint, the condition must hold at every point of time,
+     * including those at which no task is running (where the load is {@code 0}).
+     * ACE only supports upper bounds on the load: the condition is thus posted as such
+     * a bound when the loads it allows between the smallest and the largest possible
+     * loads are exactly those below some value.
+     *
+     * @param p The problem in which to post the constraint.
+     * @param origins The variables giving the origin of the tasks.
+     * @param lengths The lengths of the tasks, as an {@code int[]} or a {@code Var[]}.
+     * @param ends The variables giving the end of the tasks, or {@code null}.
+     * @param heights The heights of the tasks, as an {@code int[]} or a {@code Var[]}.
+     * @param operator The operator defining the set of allowed loads.
+     * @param capacities The bounds of the interval of loads, or the set of loads.
+     * @param interval Whether {@code capacities} contains the bounds of an interval.
+     *
+     * @throws UniverseContradictionException If the condition does not allow a load of
+     *         {@code 0}.
+     * @throws UnsupportedOperationException If the condition cannot be expressed as an
+     *         upper bound on the load.
+     */
+    private static void postCumulative(Problem p, Var[] origins, Object lengths, Var[] ends,
+            Object heights, UniverseSetBelongingOperator operator, int[] capacities,
+            boolean interval) {
+        // Computing the smallest and largest possible loads of the resource.
+        long minLoad = 0;
+        long maxLoad = 0;
+        if (heights instanceof int[]) {
+            for (int h : (int[]) heights) {
+                minLoad += Math.min(h, 0);
+                maxLoad += Math.max(h, 0);
+            }
+        } else {
+            for (var h : (Var[]) heights) {
+                minLoad += Math.min(((Variable) h).dom.firstValue(), 0);
+                maxLoad += Math.max(((Variable) h).dom.lastValue(), 0);
+            }
+        }
+
+        // Looking for the first load that is not allowed, and the first allowed load after.
+        int[] set = interval ? capacities : IntStream.of(capacities).sorted().distinct().toArray();
+        boolean in = operator == UniverseSetBelongingOperator.IN;
+        long forbidden = in ? firstNotIn(set, interval, minLoad) : firstIn(set, interval, minLoad);
+        long allowed = in ? firstIn(set, interval, forbidden) : firstNotIn(set, interval, forbidden);
+        if (in != (firstIn(set, interval, 0) == 0)) {
+            throw new UniverseContradictionException(
+                    "The load of the resource cannot be 0, as required by " + operator);
+        }
+        if (allowed <= maxLoad) {
+            throw new UnsupportedOperationException(
+                    "ACE cannot bound the load of the resource from below, as required by "
+                            + operator);
+        }
+
+        var capacity = new ConditionVal(TypeConditionOperatorRel.LE,
+                Math.min(forbidden - 1, maxLoad));
+        if (lengths instanceof int[]) {
+            if (heights instanceof int[]) {
+                p.cumulative(origins, (int[]) lengths, ends, (int[]) heights, capacity);
+            } else {
+                p.cumulative(origins, (int[]) lengths, ends, (Var[]) heights, capacity);
+            }
+
+        } else if (heights instanceof int[]) {
+            p.cumulative(origins, (Var[]) lengths, ends, (int[]) heights, capacity);
+
+        } else {
+            p.cumulative(origins, (Var[]) lengths, ends, (Var[]) heights, capacity);
+        }
+    }
+
+    /**
+     * Gives the first value that belongs to an interval or a set of values.
+     *
+     * @param values The bounds of the interval, or the (sorted) values of the set.
+     * @param interval Whether {@code values} contains the bounds of an interval.
+     * @param from The value from which to look for a value.
+     *
+     * @return The smallest value that is at least {@code from} and belongs to the
+     *         interval or set, or {@link Long#MAX_VALUE} if there is no such value.
+     */
+    private static long firstIn(int[] values, boolean interval, long from) {
+        if (interval) {
+            if (from > values[1]) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(from, values[0]);
+        }
+
+        for (int v : values) {
+            if (v >= from) {
+                return v;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Gives the first value that does not belong to an interval or a set of values.
+     *
+     * @param values The bounds of the interval, or the (sorted) values of the set.
+     * @param interval Whether {@code values} contains the bounds of an interval.
+     * @param from The value from which to look for a value.
+     *
+     * @return The smallest value that is at least {@code from} and does not belong to the
+     *         interval or set, or {@link Long#MAX_VALUE} if {@code from} is already
+     *         {@link Long#MAX_VALUE}.
+     */
+    private static long firstNotIn(int[] values, boolean interval, long from) {
+        if (from == Long.MAX_VALUE) {
+            return from;
+        }
+
+        if (interval) {
+            if ((from < values[0]) || (from > values[1])) {
+                return from;
+            }
+            return values[1] + 1L;
+        }
+
+        long v = from;
+        for (int value : values) {
+            if (value == v) {
+                v++;
+            } else if (value > v) {
+                break;
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Creates an auxiliary variable in a problem.
+     * Such a variable does not appear in the solutions of the problem.
+     *
+     * @param p The problem in which to create the variable.
+     * @param dom The domain of the variable.
+     *
+     * @return The created variable.
+     */
+    private static Var newAuxiliaryVariable(Problem p, Dom dom) {
+        try {
+            return (Var) AUX_VAR_FROM.invoke(p, dom);
+
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot create auxiliary variables in ACE", e);
+
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create auxiliary variables in ACE", e.getCause());
+        }
+    }
+
+    /**
+     * Looks up the method used by ACE to create an auxiliary variable.
+     *
+     * @return The method creating an auxiliary variable.
+     */
+    private static Method findAuxVarFrom() {
+        try {
+            Method method = Problem.class.getDeclaredMethod("auxVarFrom", Dom.class);
+            method.setAccessible(true);
+            return method;
+
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create auxiliary variables in ACE", e);
+        }
     }
 
     /*
@@ -3349,8 +4609,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseRelationalOperator wOperator, BigInteger wValue, List<BigInteger> profits,
             UniverseSetBelongingOperator pOperator, BigInteger pMin, BigInteger pMax) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(wOperator, wValue.intValueExact()), pr,
+                toCondition(p, pOperator, pMin.intValueExact(), pMax.intValueExact())));
     }
 
     /*
@@ -3368,8 +4632,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseRelationalOperator wOperator, BigInteger wValue, List<BigInteger> profits,
             UniverseSetBelongingOperator pOperator, List<BigInteger> pSet) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> pValues = new ArrayList<>(pSet);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(wOperator, wValue.intValueExact()), pr,
+                toCondition(p, pOperator, pValues)));
     }
 
     /*
@@ -3387,8 +4656,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseRelationalOperator wOperator, String wVariable, List<BigInteger> profits,
             UniverseSetBelongingOperator pOperator, BigInteger pMin, BigInteger pMax) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(wOperator, wVariable), pr,
+                toCondition(p, pOperator, pMin.intValueExact(), pMax.intValueExact())));
     }
 
     /*
@@ -3406,8 +4679,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseRelationalOperator wOperator, String wVariable, List<BigInteger> profits,
             UniverseSetBelongingOperator pOperator, List<BigInteger> pSet) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> pValues = new ArrayList<>(pSet);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(wOperator, wVariable), pr,
+                toCondition(p, pOperator, pValues)));
     }
 
     /*
@@ -3425,8 +4703,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseSetBelongingOperator wOperator, BigInteger wMin, BigInteger wMax,
             List<BigInteger> profits, UniverseRelationalOperator pOperator, BigInteger pValue) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(p, wOperator, wMin.intValueExact(), wMax.intValueExact()), pr,
+                toCondition(pOperator, pValue.intValueExact())));
     }
 
     /*
@@ -3444,8 +4726,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseSetBelongingOperator wOperator, BigInteger wMin, BigInteger wMax,
             List<BigInteger> profits, UniverseRelationalOperator pOperator, String pVariable) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(p, wOperator, wMin.intValueExact(), wMax.intValueExact()), pr,
+                toCondition(pOperator, pVariable)));
     }
 
     /*
@@ -3464,8 +4750,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseSetBelongingOperator wOperator, BigInteger wMin, BigInteger wMax,
             List<BigInteger> profits, UniverseSetBelongingOperator pOperator, BigInteger pMin,
             BigInteger pMax) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(p, wOperator, wMin.intValueExact(), wMax.intValueExact()), pr,
+                toCondition(p, pOperator, pMin.intValueExact(), pMax.intValueExact())));
     }
 
     /*
@@ -3484,8 +4774,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
             UniverseSetBelongingOperator wOperator, BigInteger wMin, BigInteger wMax,
             List<BigInteger> profits, UniverseSetBelongingOperator pOperator,
             List<BigInteger> pSet) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> pValues = new ArrayList<>(pSet);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(p, wOperator, wMin.intValueExact(), wMax.intValueExact()), pr,
+                toCondition(p, pOperator, pValues)));
     }
 
     /*
@@ -3503,8 +4798,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseSetBelongingOperator wOperator, List<BigInteger> wSet, List<BigInteger> profits,
             UniverseRelationalOperator pOperator, BigInteger pValue) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> wValues = new ArrayList<>(wSet);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(p, wOperator, wValues), pr,
+                toCondition(pOperator, pValue.intValueExact())));
     }
 
     /*
@@ -3522,8 +4822,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseSetBelongingOperator wOperator, List<BigInteger> wSet, List<BigInteger> profits,
             UniverseRelationalOperator pOperator, String pVariable) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> wValues = new ArrayList<>(wSet);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(p, wOperator, wValues), pr,
+                toCondition(pOperator, pVariable)));
     }
 
     /*
@@ -3541,8 +4846,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseSetBelongingOperator wOperator, List<BigInteger> wSet, List<BigInteger> profits,
             UniverseSetBelongingOperator pOperator, BigInteger pMin, BigInteger pMax) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> wValues = new ArrayList<>(wSet);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(p, wOperator, wValues), pr,
+                toCondition(p, pOperator, pMin.intValueExact(), pMax.intValueExact())));
     }
 
     /*
@@ -3560,8 +4870,14 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addKnapsack(List<String> variables, List<BigInteger> weights,
             UniverseSetBelongingOperator wOperator, List<BigInteger> wSet, List<BigInteger> profits,
             UniverseSetBelongingOperator pOperator, List<BigInteger> pSet) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        List<BigInteger> wValues = new ArrayList<>(wSet);
+        List<BigInteger> pValues = new ArrayList<>(pSet);
+        int[] w = toIntArray(weights);
+        int[] pr = toIntArray(profits);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.knapsack(toVarArray(vars), w,
+                toCondition(p, wOperator, wValues), pr,
+                toCondition(p, pOperator, pValues)));
     }
 
     /*
@@ -3573,8 +4889,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addStretch(List<String> variables, List<BigInteger> values,
             List<BigInteger> widthsMin, List<BigInteger> widthsMax) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        addStretch(variables, values, widthsMin, widthsMax, null);
     }
 
     /*
@@ -3587,8 +4902,119 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addStretch(List<String> variables, List<BigInteger> values,
             List<BigInteger> widthsMin, List<BigInteger> widthsMax,
             List<List<BigInteger>> patterns) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var automaton = toStretchAutomaton(vars.size(), values, widthsMin, widthsMax, patterns);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.regular(toVarArray(vars), automaton));
+    }
+
+    /**
+     * Gives the automaton recognizing the sequences satisfying a stretch constraint.
+     * Automata are cached, so that identical stretch constraints (e.g., on the different
+     * rows of a roster) share the same automaton.
+     *
+     * @param length The number of variables in the constraint.
+     * @param values The values that may be taken by the variables.
+     * @param widthsMin The minimum width of the stretches of each value.
+     * @param widthsMax The maximum width of the stretches of each value.
+     * @param patterns The pairs of values that may follow each other, or {@code null} if
+     *        any value may follow any other value.
+     *
+     * @return The automaton of the constraint.
+     */
+    private Automaton toStretchAutomaton(int length, List<BigInteger> values,
+            List<BigInteger> widthsMin, List<BigInteger> widthsMax,
+            List<List<BigInteger>> patterns) {
+        // The key is a deep copy of the parameters, so that it is not affected if the
+        // caller modifies them afterwards.
+        var key = Arrays.asList(length, List.copyOf(values), List.copyOf(widthsMin),
+                List.copyOf(widthsMax), (patterns == null) ? null
+                        : patterns.stream().map(List::copyOf).collect(Collectors.toList()));
+        return stretchAutomata.computeIfAbsent(key,
+                k -> compileStretch(length, toIntArray(values), toIntArray(widthsMin),
+                        toIntArray(widthsMax), (patterns == null) ? null : toIntMatrix(patterns)));
+    }
+
+    /**
+     * Compiles a stretch constraint into an automaton.
+     * The state {@code qi_k} of this automaton represents a stretch of {@code k}
+     * occurrences of the {@code i}-th value.
+     *
+     * @param length The number of variables in the constraint.
+     * @param values The values that may be taken by the variables.
+     * @param widthsMin The minimum width of the stretches of each value.
+     * @param widthsMax The maximum width of the stretches of each value.
+     * @param patterns The pairs of values that may follow each other, or {@code null} if
+     *        any value may follow any other value.
+     *
+     * @return The compiled automaton.
+     */
+    static Automaton compileStretch(int length, int[] values, int[] widthsMin,
+            int[] widthsMax, int[][] patterns) {
+        List<Transition> transitions = new ArrayList<>();
+        List<String> finalStates = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            // Stretches cannot be longer than the sequence of variables.
+            int max = Math.min(widthsMax[i], length);
+            if (widthsMin[i] > max) {
+                continue;
+            }
+
+            transitions.add(new Transition("q", (long) values[i], stretchState(i, 1)));
+            for (int k = 1; k <= max; k++) {
+                if (k < max) {
+                    transitions.add(new Transition(
+                            stretchState(i, k), (long) values[i], stretchState(i, k + 1)));
+                }
+                if (k < widthsMin[i]) {
+                    continue;
+                }
+                finalStates.add(stretchState(i, k));
+                for (int j = 0; j < values.length; j++) {
+                    if ((j != i) && (widthsMin[j] <= Math.min(widthsMax[j], length))
+                            && isAllowedAfter(values[i], values[j], patterns)) {
+                        transitions.add(new Transition(
+                                stretchState(i, k), (long) values[j], stretchState(j, 1)));
+                    }
+                }
+            }
+        }
+        return new Automaton("q", transitions.toArray(new Transition[transitions.size()]),
+                finalStates.toArray(new String[finalStates.size()]));
+    }
+
+    /**
+     * Gives the name of the state of a stretch automaton representing a stretch of the
+     * given value.
+     *
+     * @param i The index of the value of the stretch.
+     * @param k The current width of the stretch.
+     *
+     * @return The name of the state.
+     */
+    private static String stretchState(int i, int k) {
+        return "q" + i + "_" + k;
+    }
+
+    /**
+     * Checks whether a stretch of a value may follow a stretch of another value.
+     *
+     * @param previous The value of the previous stretch.
+     * @param next The value of the next stretch.
+     * @param patterns The pairs of values that may follow each other, or {@code null} if
+     *        any value may follow any other value.
+     *
+     * @return Whether the value may follow the other one.
+     */
+    private static boolean isAllowedAfter(int previous, int next, int[][] patterns) {
+        if (patterns == null) {
+            return true;
+        }
+        for (int[] pattern : patterns) {
+            if ((pattern[0] == previous) && (pattern[1] == next)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /*
@@ -3600,8 +5026,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
      */
     @Override
     public void addSupportSymbolic(String variable, List<String> allowedValues) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        addSupport(variable, toBigIntegers(symbols.encode(variable, allowedValues)));
     }
 
     /*
@@ -3613,8 +5038,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
      */
     @Override
     public void addSupportSymbolic(List<String> variableTuple, List<List<String>> allowedValues) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        addExtension(variableTuple, symbols.encode(variableTuple, allowedValues), true);
     }
 
     /*
@@ -3626,8 +5050,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
      */
     @Override
     public void addConflictsSymbolic(String variable, List<String> forbiddenValues) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        addConflicts(variable, toBigIntegers(symbols.encode(variable, forbiddenValues)));
     }
 
     /*
@@ -3640,8 +5063,7 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addConflictsSymbolic(List<String> variableTuple,
             List<List<String>> forbiddenValues) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        addExtension(variableTuple, symbols.encode(variableTuple, forbiddenValues), false);
     }
 
     /*
@@ -3654,8 +5076,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMinimum(List<String> variables, UniverseSetBelongingOperator operator,
             BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var condition = toCondition(operator, min.intValueExact(), max.intValueExact());
+        getHead().xcsp3.addConstraintsToAdd(p -> p.minimum(toVarArray(vars), condition));
     }
 
     /*
@@ -3668,8 +5091,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMinimum(List<String> variables, UniverseSetBelongingOperator operator,
             List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var condition = toCondition(operator, set);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.minimum(toVarArray(vars), condition));
     }
 
     /*
@@ -3684,8 +5108,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMinimumIndex(List<String> variables, int startIndex, String index,
             UniverseRelationalOperator operator, BigInteger value) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        getHead().xcsp3.addConstraintsToAdd(p -> postExtremumIndex(p, toVarArray(vars),
+                startIndex, index, toCondition(operator, value.intValueExact()), true));
     }
 
     /*
@@ -3700,8 +5125,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMinimumIndex(List<String> variables, int startIndex, String index,
             UniverseRelationalOperator operator, String value) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        getHead().xcsp3.addConstraintsToAdd(p -> postExtremumIndex(p, toVarArray(vars),
+                startIndex, index, toCondition(operator, value), true));
     }
 
     /*
@@ -3716,8 +5142,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMinimumIndex(List<String> variables, int startIndex, String index,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var condition = toCondition(operator, min.intValueExact(), max.intValueExact());
+        getHead().xcsp3.addConstraintsToAdd(p -> postExtremumIndex(p, toVarArray(vars),
+                startIndex, index, condition, true));
     }
 
     /*
@@ -3732,8 +5160,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMinimumIndex(List<String> variables, int startIndex, String index,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var condition = toCondition(operator, set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postExtremumIndex(p, toVarArray(vars),
+                startIndex, index, condition, true));
     }
 
     /*
@@ -3747,8 +5177,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMinimumIntension(List<IUniverseIntensionConstraint> intensionConstraints,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        var condition = toCondition(operator, min.intValueExact(), max.intValueExact());
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.minimum(toXnode(intensionConstraints), condition));
     }
 
     /*
@@ -3762,8 +5193,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMinimumIntension(List<IUniverseIntensionConstraint> intensionConstraints,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        var condition = toCondition(operator, set);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.minimum(toXnode(intensionConstraints), condition));
     }
 
     /*
@@ -3776,8 +5208,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMaximum(List<String> variables, UniverseSetBelongingOperator operator,
             BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var condition = toCondition(operator, min.intValueExact(), max.intValueExact());
+        getHead().xcsp3.addConstraintsToAdd(p -> p.maximum(toVarArray(vars), condition));
     }
 
     /*
@@ -3790,8 +5223,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMaximum(List<String> variables, UniverseSetBelongingOperator operator,
             List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var condition = toCondition(operator, set);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.maximum(toVarArray(vars), condition));
     }
 
     /*
@@ -3806,8 +5240,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMaximumIndex(List<String> variables, int startIndex, String index,
             UniverseRelationalOperator operator, BigInteger value) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        getHead().xcsp3.addConstraintsToAdd(p -> postExtremumIndex(p, toVarArray(vars),
+                startIndex, index, toCondition(operator, value.intValueExact()), false));
     }
 
     /*
@@ -3822,8 +5257,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMaximumIndex(List<String> variables, int startIndex, String index,
             UniverseRelationalOperator operator, String value) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        getHead().xcsp3.addConstraintsToAdd(p -> postExtremumIndex(p, toVarArray(vars),
+                startIndex, index, toCondition(operator, value), false));
     }
 
     /*
@@ -3838,8 +5274,10 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMaximumIndex(List<String> variables, int startIndex, String index,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var condition = toCondition(operator, min.intValueExact(), max.intValueExact());
+        getHead().xcsp3.addConstraintsToAdd(p -> postExtremumIndex(p, toVarArray(vars),
+                startIndex, index, condition, false));
     }
 
     /*
@@ -3854,8 +5292,40 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMaximumIndex(List<String> variables, int startIndex, String index,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        var condition = toCondition(operator, set);
+        getHead().xcsp3.addConstraintsToAdd(p -> postExtremumIndex(p, toVarArray(vars),
+                startIndex, index, condition, false));
+    }
+
+    /**
+     * Posts a minimum or maximum constraint whose index is given by a variable.
+     * The index is posted as an {@code ExtremumArg} constraint, and the condition on the
+     * extremum as an {@code Extremum} constraint, both being native propagators of ACE.
+     *
+     * @param p The problem in which to post the constraints.
+     * @param list The variables among which to look for the extremum.
+     * @param startIndex The index of the first variable in the list.
+     * @param index The variable giving the index of the extremum.
+     * @param condition The condition on the value of the extremum.
+     * @param minimum Whether to look for the minimum (or maximum).
+     */
+    private void postExtremumIndex(Problem p, Var[] list, int startIndex, String index,
+            Condition condition, boolean minimum) {
+        Var idx = toVar(index);
+        if (startIndex != 0) {
+            // ACE numbers the variables of the list from 0.
+            idx = (Var) p.replaceByVariable(XNodeParent.sub(idx, startIndex));
+        }
+
+        var arg = new ConditionVar(TypeConditionOperatorRel.EQ, idx);
+        if (minimum) {
+            p.minimumArg(list, TypeRank.ANY, arg);
+            p.minimum(list, condition);
+        } else {
+            p.maximumArg(list, TypeRank.ANY, arg);
+            p.maximum(list, condition);
+        }
     }
 
     /*
@@ -3869,8 +5339,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMaximumIntension(List<IUniverseIntensionConstraint> intensionConstraints,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        var condition = toCondition(operator, min.intValueExact(), max.intValueExact());
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.maximum(toXnode(intensionConstraints), condition));
     }
 
     /*
@@ -3884,8 +5355,9 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addMaximumIntension(List<IUniverseIntensionConstraint> intensionConstraints,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        var condition = toCondition(operator, set);
+        getHead().xcsp3.addConstraintsToAdd(
+                p -> p.maximum(toXnode(intensionConstraints), condition));
     }
 
     /*
@@ -3898,8 +5370,20 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     @Override
     public void addLex(List<String> variables, List<BigInteger> limit,
             UniverseRelationalOperator operator) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        if (operator == UniverseRelationalOperator.EQ) {
+            // The variables are simply assigned the values of the limit.
+            addInstantiation(variables, limit);
+
+        } else if (operator == UniverseRelationalOperator.NEQ) {
+            // Only the limit itself is forbidden.
+            addConflicts(variables, List.of(limit));
+
+        } else {
+            List<String> vars = new ArrayList<>(variables);
+            int[] values = toIntArray(limit);
+            getHead().xcsp3.addConstraintsToAdd(
+                    p -> p.lex(toVarArray(vars), values, toOperatorRel(operator)));
+        }
     }
 
     /*
@@ -3914,8 +5398,12 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addFlow(List<String> variables, List<BigInteger> balance,
             List<List<BigInteger>> edges, List<BigInteger> weights,
             UniverseSetBelongingOperator operator, BigInteger min, BigInteger max) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] b = toIntArray(balance);
+        int[][] e = toIntMatrix(edges);
+        int[] w = toIntArray(weights);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.flow(toVarArray(vars), b, e, w,
+                toCondition(p, operator, min.intValueExact(), max.intValueExact())));
     }
 
     /*
@@ -3930,8 +5418,13 @@ public class JUniverseAceProblemAdapter implements IUniverseCSPSolver, IUniverse
     public void addFlow(List<String> variables, List<BigInteger> balance,
             List<List<BigInteger>> edges, List<BigInteger> weights,
             UniverseSetBelongingOperator operator, List<BigInteger> set) {
-        // TODO Auto-generated method stub.
-        throw new UnsupportedOperationException();
+        List<String> vars = new ArrayList<>(variables);
+        int[] b = toIntArray(balance);
+        int[][] e = toIntMatrix(edges);
+        List<BigInteger> costs = new ArrayList<>(set);
+        int[] w = toIntArray(weights);
+        getHead().xcsp3.addConstraintsToAdd(p -> p.flow(toVarArray(vars), b, e, w,
+                toCondition(p, operator, costs)));
     }
 
 	@Override
@@ -43,6 +43,11 @@ import variables.Variable;
 public class JUniverseVariableAceAdapter implements IUniverseVariable {
 
     private Variable x;
+
+    /**
+     * The adapter of the domain of the variable, created on demand.
+     */
+    private JUniverseAceDomainAdapter domain;
     /**
      * 
      * Creates a new JUniverseVariableAceAdapter.
@@ -79,7 +84,10 @@ public class JUniverseVariableAceAdapter implements IUniverseVariable {
      */
     @Override
     public IUniverseDomain getDomain() {
-        return new JUniverseAceDomainAdapter(x.dom);
+        if (domain == null) {
+            domain = new JUniverseAceDomainAdapter(x.dom);
+        }
+        return domain;
     }
 
     @Override
@@ -0,0 +1,175 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import static fr.univartois.cril.juniverse.csp.intension.UniverseIntensionConstraintFactory.neq;
+import static fr.univartois.cril.juniverse.csp.intension.UniverseIntensionConstraintFactory.variable;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.juniverse.core.UniverseSolverResult;
+
+/**
+ * The AceCubeAndConquerTest checks the parallel solving of the cubes of a problem,
+ * with and without the exchange of nogoods between the replicas.
+ * The problems are pigeonhole problems, in which pigeons must be put in pairwise
+ * distinct holes.
+ * They are satisfiable when there are as many holes as pigeons, and unsatisfiable
+ * (and hard enough to require learning nogoods) when there are fewer holes.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+class AceCubeAndConquerTest {
+
+    /**
+     * Checks that all the cubes of an unsatisfiable problem are refuted exactly once,
+     * when there are more cubes than workers (so that workers steal the cubes of the
+     * others).
+     */
+    @Test
+    void testUnsatisfiableWithMoreCubesThanWorkers() {
+        var cubeAndConquer = new AceCubeAndConquer(pigeons(7, 6), 3, 2);
+        assertEquals(UniverseSolverResult.UNSATISFIABLE, cubeAndConquer.solve());
+        assertEquals(36, cubeAndConquer.getNbCubes());
+        assertEquals(36, cubeAndConquer.getNbRefutedCubes());
+    }
+
+    /**
+     * Checks that an unsatisfiable problem is solved when there are more workers than
+     * cubes, i.e., when some workers have nothing to do.
+     */
+    @Test
+    void testUnsatisfiableWithMoreWorkersThanCubes() {
+        var cubeAndConquer = new AceCubeAndConquer(pigeons(4, 2), 4, 1);
+        assertEquals(UniverseSolverResult.UNSATISFIABLE, cubeAndConquer.solve());
+        assertEquals(2, cubeAndConquer.getNbCubes());
+        assertEquals(2, cubeAndConquer.getNbRefutedCubes());
+    }
+
+    /**
+     * Checks that an unsatisfiable problem is still unsatisfiable when the replicas
+     * share their nogoods, including when the buffer of the exchange is so small that
+     * nogoods are overwritten before being imported.
+     */
+    @Test
+    void testUnsatisfiableWithNogoodExchange() {
+        for (int capacity : new int[] { 1, 4096 }) {
+            var cubeAndConquer = new AceCubeAndConquer(pigeons(7, 6), 3, 1);
+            cubeAndConquer.setNogoodExchange(new AceNogoodExchange(capacity, 4));
+            assertEquals(UniverseSolverResult.UNSATISFIABLE, cubeAndConquer.solve());
+            assertEquals(cubeAndConquer.getNbCubes(), cubeAndConquer.getNbRefutedCubes());
+        }
+    }
+
+    /**
+     * Checks that a satisfiable problem is solved when the replicas share their
+     * nogoods, and that the solution found by the workers is an actual solution.
+     */
+    @Test
+    void testSatisfiableWithNogoodExchange() {
+        var cubeAndConquer = new AceCubeAndConquer(pigeons(6, 6), 3, 2);
+        cubeAndConquer.setNogoodExchange(new AceNogoodExchange(4096, 4));
+        assertEquals(UniverseSolverResult.SATISFIABLE, cubeAndConquer.solve());
+
+        var solution = cubeAndConquer.mapSolution();
+        var holes = new HashSet<BigInteger>();
+        for (int i = 0; i < 6; i++) {
+            holes.add(solution.get("p" + i));
+        }
+        assertEquals(6, holes.size());
+    }
+
+    /**
+     * Checks that the replicas of an optimization problem do not share their nogoods.
+     */
+    @Test
+    void testNoNogoodExchangeForOptimization() {
+        Supplier<JUniverseAceProblemAdapter> pigeons = pigeons(6, 6);
+        var exchange = new AceNogoodExchange(4096, 4);
+        var cubeAndConquer = new AceCubeAndConquer(() -> {
+            var solver = pigeons.get();
+            solver.maximizeVariable("p0");
+            return solver;
+        }, 3, 1);
+        cubeAndConquer.setNogoodExchange(exchange);
+        cubeAndConquer.solve();
+        assertEquals(0, exchange.getNbExported());
+        assertEquals(0, exchange.getNbImported());
+    }
+
+    /**
+     * Checks that interrupting the workers before a search does not prevent this search
+     * from completing.
+     */
+    @Test
+    void testInterruptBeforeSolve() {
+        var cubeAndConquer = new AceCubeAndConquer(pigeons(4, 3), 2, 1);
+        cubeAndConquer.interrupt();
+        assertEquals(UniverseSolverResult.UNSATISFIABLE, cubeAndConquer.solve());
+        assertThrows(IllegalStateException.class, cubeAndConquer::mapSolution);
+    }
+
+    /**
+     * Checks that invalid parameters of the nogood exchange are rejected.
+     */
+    @Test
+    void testInvalidNogoodExchange() {
+        assertThrows(IllegalArgumentException.class, () -> new AceNogoodExchange(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new AceNogoodExchange(16, 1));
+    }
+
+    /**
+     * Creates a function building pigeonhole problems.
+     *
+     * @param nbPigeons The number of pigeons.
+     * @param nbHoles The number of holes.
+     *
+     * @return The function building the problems.
+     */
+    private static Supplier<JUniverseAceProblemAdapter> pigeons(int nbPigeons, int nbHoles) {
+        return () -> {
+            var solver = new JUniverseAceProblemAdapter();
+            List<String> pigeons = new ArrayList<>(nbPigeons);
+            for (int i = 0; i < nbPigeons; i++) {
+                pigeons.add("p" + i);
+                solver.newVariable("p" + i, 0, nbHoles - 1);
+            }
+            for (int i = 0; i < nbPigeons; i++) {
+                for (int j = i + 1; j < nbPigeons; j++) {
+                    solver.addIntension(neq(variable(pigeons.get(i)), variable(pigeons.get(j))));
+                }
+            }
+            return solver;
+        };
+    }
+
+}
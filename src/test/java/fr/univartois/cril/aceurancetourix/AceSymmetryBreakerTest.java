@@ -0,0 +1,91 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.juniverse.core.UniverseSolverResult;
+import fr.univartois.cril.juniverse.csp.operator.UniverseRelationalOperator;
+
+/**
+ * The AceSymmetryBreakerTest checks that breaking symmetries does not remove the
+ * solutions of problems in which variables only look interchangeable.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+class AceSymmetryBreakerTest {
+
+    /**
+     * Checks that constraints whose key does not encode their constants do not make
+     * their variables interchangeable.
+     * Here, the keys of {@code min(x,z) <= 5} and {@code min(y,z) <= 2} do not contain
+     * their right-hand side, and the only solution has {@code x > y}.
+     */
+    @Test
+    void testConstantsOfConstraintsAreNotIgnored() {
+        var solver = new JUniverseAceProblemAdapter();
+        solver.enableSymmetryBreaking();
+        solver.newVariable("z", 9, 9);
+        solver.newVariable("x", 0, 9);
+        solver.newVariable("y", 0, 9);
+        solver.addMinimum(List.of("x", "z"), UniverseRelationalOperator.LE, BigInteger.valueOf(5));
+        solver.addMinimum(List.of("y", "z"), UniverseRelationalOperator.LE, BigInteger.valueOf(2));
+        solver.addSum(List.of("x", "y"), UniverseRelationalOperator.EQ, BigInteger.valueOf(7));
+
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        var solution = solver.mapSolution();
+        assertEquals(BigInteger.valueOf(5), solution.get("x"));
+        assertEquals(BigInteger.valueOf(2), solution.get("y"));
+    }
+
+    /**
+     * Checks that the values removed from a domain before the problem is built make the
+     * variables not interchangeable.
+     * Here, the domain of {@code x} is reduced to {@code {0, 9}}, and the only solution
+     * has {@code x > y}.
+     */
+    @Test
+    void testRemovedValuesAreNotIgnored() {
+        var solver = new JUniverseAceProblemAdapter();
+        solver.enableSymmetryBreaking();
+        solver.newVariable("x", 0, 9);
+        solver.newVariable("y", 0, 9);
+        solver.addConflicts("x", IntStream.rangeClosed(1, 8).mapToObj(BigInteger::valueOf)
+                .collect(Collectors.toList()));
+        solver.addSum(List.of("x", "y"), UniverseRelationalOperator.EQ, BigInteger.valueOf(12));
+
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        var solution = solver.mapSolution();
+        assertEquals(BigInteger.valueOf(9), solution.get("x"));
+        assertEquals(BigInteger.valueOf(3), solution.get("y"));
+    }
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.juniverse.core.UniverseContradictionException;
+import fr.univartois.cril.juniverse.core.UniverseSolverResult;
+
+/**
+ * The JUniverseAceDomainAdapterTest checks the removal of values from the domains of
+ * the variables between two solves.
+ * All problems have two variables {@code x} and {@code y} with domain {@code 0..2} that
+ * must take the same value.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+class JUniverseAceDomainAdapterTest {
+
+    /**
+     * Checks that values can be removed after a solution has been found, i.e., while the
+     * solver is still on the leaf of this solution.
+     */
+    @Test
+    void testPruneAfterSatisfiableSolve() {
+        var solver = newProblem();
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+
+        domainOf(solver, "x").keepValues(2, 2);
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        assertEquals(BigInteger.TWO, solver.mapSolution().get("x"));
+        assertEquals(BigInteger.TWO, solver.mapSolution().get("y"));
+    }
+
+    /**
+     * Checks that the values removed between two solves are still removed in all
+     * subsequent solves, even after the solver has been reset.
+     */
+    @Test
+    void testPruneThenSolveAgain() {
+        var solver = newProblem();
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+
+        domainOf(solver, "x").removeValues(new int[] { 0, 2 });
+        for (int i = 0; i < 3; i++) {
+            assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+            assertEquals(BigInteger.ONE, solver.mapSolution().get("y"));
+            solver.reset();
+        }
+
+        domainOf(solver, "y").removeValues(1, 1);
+        assertEquals(UniverseSolverResult.UNSATISFIABLE, solver.solve());
+    }
+
+    /**
+     * Checks that removing all the values of a domain is rejected, and leaves the domain
+     * unchanged.
+     */
+    @Test
+    void testPruneWipingOutDomain() {
+        var solver = newProblem();
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+
+        var x = domainOf(solver, "x");
+        assertThrows(UniverseContradictionException.class, () -> x.removeValues(0, 2));
+        assertThrows(UniverseContradictionException.class, () -> x.keepValues(new int[] { 5 }));
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+    }
+
+    /**
+     * Checks that removing values whose propagation wipes out another domain is
+     * reported as a contradiction.
+     */
+    @Test
+    void testPruneLeadingToContradiction() {
+        var solver = newProblem();
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+
+        domainOf(solver, "x").keepValues(0, 0);
+        var y = domainOf(solver, "y");
+        assertThrows(UniverseContradictionException.class, () -> y.keepValues(1, 2));
+        assertEquals(UniverseSolverResult.UNSATISFIABLE, solver.solve());
+    }
+
+    /**
+     * Creates a new problem with two variables that must take the same value.
+     *
+     * @return The created problem.
+     */
+    private static JUniverseAceProblemAdapter newProblem() {
+        var solver = new JUniverseAceProblemAdapter();
+        solver.newVariable("x", 0, 2);
+        solver.newVariable("y", 0, 2);
+        solver.addAllEqual(List.of("x", "y"));
+        return solver;
+    }
+
+    /**
+     * Gives the domain of a variable of a problem.
+     *
+     * @param solver The problem in which the variable is defined.
+     * @param name The name of the variable.
+     *
+     * @return The domain of the variable.
+     */
+    private static JUniverseAceDomainAdapter domainOf(JUniverseAceProblemAdapter solver,
+            String name) {
+        return (JUniverseAceDomainAdapter) solver.getVariablesMapping().get(name).getDomain();
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.juniverse.core.UniverseContradictionException;
+import fr.univartois.cril.juniverse.core.UniverseSolverResult;
+import fr.univartois.cril.juniverse.csp.operator.UniverseSetBelongingOperator;
+
+/**
+ * The JUniverseAceProblemAdapterCumulativeTest checks the cumulative constraints whose
+ * load must belong (or not) to a set of values.
+ * All problems have two tasks of length 1 and height 2 that start at time 0 or 1, so
+ * that the load of the resource is 4 when (and only when) both tasks start together.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+class JUniverseAceProblemAdapterCumulativeTest {
+
+    /**
+     * Checks that a load that is above an interval of allowed loads is excluded.
+     */
+    @Test
+    void testInIntervalExcludesLoadAboveInterval() {
+        assertOverlapIsExcluded(s -> s.addCumulativeConstantLengthsConstantHeights(
+                List.of("o1", "o2"), values(1, 1), values(2, 2),
+                UniverseSetBelongingOperator.IN, BigInteger.ZERO, BigInteger.valueOf(3)));
+    }
+
+    /**
+     * Checks that an interval of allowed loads that does not contain {@code 0} is
+     * rejected, as the load is {@code 0} when no task is running.
+     */
+    @Test
+    void testInIntervalWithoutZeroIsInconsistent() {
+        var solver = newProblem();
+        solver.addCumulativeConstantLengthsConstantHeights(List.of("o1", "o2"), values(1, 1),
+                values(2, 2), UniverseSetBelongingOperator.IN, BigInteger.ONE,
+                BigInteger.valueOf(3));
+        assertThrows(UniverseContradictionException.class, solver::solve);
+    }
+
+    /**
+     * Checks that a load that is in an interval of forbidden loads is excluded.
+     */
+    @Test
+    void testNotInIntervalExcludesLoadInInterval() {
+        assertOverlapIsExcluded(s -> s.addCumulativeConstantLengthsConstantHeights(
+                List.of("o1", "o2"), values(1, 1), values(2, 2),
+                UniverseSetBelongingOperator.NOT_IN, BigInteger.valueOf(3),
+                BigInteger.valueOf(10)));
+    }
+
+    /**
+     * Checks that a load that is in a set of forbidden loads is excluded.
+     */
+    @Test
+    void testNotInSetExcludesLoadInSet() {
+        assertOverlapIsExcluded(s -> s.addCumulativeConstantLengthsConstantHeights(
+                List.of("o1", "o2"), values(1, 1), values(2, 2),
+                UniverseSetBelongingOperator.NOT_IN, values(4)));
+    }
+
+    /**
+     * Checks that a set of forbidden loads that cannot be expressed as an upper bound on
+     * the load is rejected, rather than being silently ignored.
+     */
+    @Test
+    void testNotInSetWithAllowedLoadsAboveIsUnsupported() {
+        var solver = newProblem();
+        solver.addCumulativeConstantLengthsConstantHeights(List.of("o1", "o2"), values(1, 1),
+                values(2, 2), UniverseSetBelongingOperator.NOT_IN, values(1));
+        assertThrows(UnsupportedOperationException.class, solver::solve);
+    }
+
+    /**
+     * Checks that a cumulative constraint forbids the tasks to start together, by
+     * checking that its solutions do not have overlapping tasks, and that there is no
+     * solution when the tasks are forced to start together.
+     *
+     * @param cumulative The function adding the cumulative constraint to a problem.
+     */
+    private static void assertOverlapIsExcluded(Consumer<JUniverseAceProblemAdapter> cumulative) {
+        var solver = newProblem();
+        cumulative.accept(solver);
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        var solution = solver.mapSolution();
+        assertNotEquals(solution.get("o1"), solution.get("o2"));
+
+        solver = newProblem();
+        cumulative.accept(solver);
+        solver.addAllEqual(List.of("o1", "o2"));
+        assertEquals(UniverseSolverResult.UNSATISFIABLE, solver.solve());
+    }
+
+    /**
+     * Creates a new problem with the origins of the two tasks.
+     *
+     * @return The created problem.
+     */
+    private static JUniverseAceProblemAdapter newProblem() {
+        var solver = new JUniverseAceProblemAdapter();
+        solver.newVariable("o1", 0, 1);
+        solver.newVariable("o2", 0, 1);
+        return solver;
+    }
+
+    /**
+     * Creates a list of {@link BigInteger} values.
+     *
+     * @param values The values to put in the list.
+     *
+     * @return The list of values.
+     */
+    private static List<BigInteger> values(int... values) {
+        List<BigInteger> list = new ArrayList<>(values.length);
+        for (int v : values) {
+            list.add(BigInteger.valueOf(v));
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.juniverse.core.UniverseSolverResult;
+import fr.univartois.cril.juniverse.csp.operator.UniverseRelationalOperator;
+import fr.univartois.cril.juniverse.csp.operator.UniverseSetBelongingOperator;
+
+/**
+ * The JUniverseAceProblemAdapterKnapsackTest checks the knapsack constraints whose
+ * weight must belong to an interval or a set of values.
+ * Such conditions are expressed with an auxiliary variable, created through a method
+ * that ACE keeps private: these tests fail if this method is no longer available.
+ * All problems have three items of weights {@code 1}, {@code 2} and {@code 3}, which
+ * are either taken or not.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+class JUniverseAceProblemAdapterKnapsackTest {
+
+    /**
+     * The names of the variables representing the items.
+     */
+    private static final List<String> ITEMS = List.of("x0", "x1", "x2");
+
+    /**
+     * Checks that the weight of the solution belongs to the interval of allowed weights.
+     */
+    @Test
+    void testWeightInInterval() {
+        var solver = newProblem();
+        solver.addKnapsack(ITEMS, values(1, 2, 3), UniverseSetBelongingOperator.IN,
+                BigInteger.valueOf(4), BigInteger.valueOf(4), values(1, 1, 1),
+                UniverseRelationalOperator.GE, BigInteger.ZERO);
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        assertEquals(4, weightOf(solver.mapSolution()));
+    }
+
+    /**
+     * Checks that the weight of the solution belongs to the set of allowed weights.
+     */
+    @Test
+    void testWeightInSet() {
+        var solver = newProblem();
+        solver.addKnapsack(ITEMS, values(1, 2, 3), UniverseSetBelongingOperator.IN,
+                values(5, 7), values(1, 1, 1), UniverseRelationalOperator.GE,
+                BigInteger.ZERO);
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        assertEquals(5, weightOf(solver.mapSolution()));
+    }
+
+    /**
+     * Checks that there is no solution when no weight is allowed.
+     */
+    @Test
+    void testWeightInUnreachableInterval() {
+        var solver = newProblem();
+        solver.addKnapsack(ITEMS, values(1, 2, 3), UniverseSetBelongingOperator.IN,
+                BigInteger.valueOf(7), BigInteger.valueOf(9), values(1, 1, 1),
+                UniverseRelationalOperator.GE, BigInteger.ZERO);
+        assertEquals(UniverseSolverResult.UNSATISFIABLE, solver.solve());
+    }
+
+    /**
+     * Checks that a bound that does not fit in an {@code int} is rejected, rather than
+     * being silently truncated.
+     */
+    @Test
+    void testBoundTooLarge() {
+        var solver = newProblem();
+        assertThrows(ArithmeticException.class, () -> {
+            solver.addKnapsack(ITEMS, values(1, 2, 3), UniverseSetBelongingOperator.IN,
+                    BigInteger.ONE, BigInteger.ONE.shiftLeft(32).add(BigInteger.TWO),
+                    values(1, 1, 1), UniverseRelationalOperator.GE, BigInteger.ZERO);
+            solver.solve();
+        });
+    }
+
+    /**
+     * Creates a new problem with the variables representing the items.
+     *
+     * @return The created problem.
+     */
+    private static JUniverseAceProblemAdapter newProblem() {
+        var solver = new JUniverseAceProblemAdapter();
+        for (var x : ITEMS) {
+            solver.newVariable(x, 0, 1);
+        }
+        return solver;
+    }
+
+    /**
+     * Computes the weight of the items taken in a solution.
+     *
+     * @param solution The solution to compute the weight of.
+     *
+     * @return The weight of the solution.
+     */
+    private static int weightOf(Map<String, BigInteger> solution) {
+        int weight = 0;
+        for (int i = 0; i < ITEMS.size(); i++) {
+            weight += (i + 1) * solution.get(ITEMS.get(i)).intValueExact();
+        }
+        return weight;
+    }
+
+    /**
+     * Creates a list of {@link BigInteger} values.
+     *
+     * @param values The values to put in the list.
+     *
+     * @return The list of values.
+     */
+    private static List<BigInteger> values(int... values) {
+        List<BigInteger> list = new ArrayList<>(values.length);
+        for (int v : values) {
+            list.add(BigInteger.valueOf(v));
+        }
+        return list;
+    }
+
+}
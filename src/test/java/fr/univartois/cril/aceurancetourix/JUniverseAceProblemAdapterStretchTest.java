@@ -0,0 +1,219 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.xcsp.common.structures.Automaton;
+import org.xcsp.common.structures.Transition;
+
+/**
+ * The JUniverseAceProblemAdapterStretchTest checks the automata compiled for the
+ * stretch constraints, by comparing the sequences they accept with those satisfying
+ * the constraints, computed by enumerating all possible sequences.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+class JUniverseAceProblemAdapterStretchTest {
+
+    /**
+     * Checks the automaton of a stretch constraint whose stretches must all have the
+     * same width.
+     */
+    @Test
+    void testFixedWidths() {
+        assertSameSequences(4, new int[] { 0, 1 }, new int[] { 2, 2 }, new int[] { 2, 2 },
+                null);
+    }
+
+    /**
+     * Checks the automaton of a stretch constraint whose stretches have different
+     * minimum and maximum widths.
+     */
+    @Test
+    void testVariableWidths() {
+        assertSameSequences(6, new int[] { 0, 1, 2 }, new int[] { 1, 2, 1 },
+                new int[] { 2, 3, 1 }, null);
+    }
+
+    /**
+     * Checks the automaton of a stretch constraint whose maximum widths are larger than
+     * the number of variables, or whose minimum widths cannot be reached.
+     */
+    @Test
+    void testUnreachableWidths() {
+        assertSameSequences(3, new int[] { 0, 1, 2 }, new int[] { 1, 1, 4 },
+                new int[] { 5, 1, 6 }, null);
+    }
+
+    /**
+     * Checks the automaton of a stretch constraint in which only some values may follow
+     * each other.
+     */
+    @Test
+    void testPatterns() {
+        assertSameSequences(5, new int[] { 0, 1, 2 }, new int[] { 1, 1, 2 },
+                new int[] { 2, 3, 2 }, new int[][] { { 0, 1 }, { 1, 2 }, { 2, 0 } });
+    }
+
+    /**
+     * Checks that an automaton compiled for a stretch constraint accepts exactly the
+     * sequences satisfying this constraint.
+     * All sequences of values taken among the values of the constraint and an extra
+     * value are enumerated.
+     *
+     * @param length The number of variables in the constraint.
+     * @param values The values that may be taken by the variables.
+     * @param widthsMin The minimum width of the stretches of each value.
+     * @param widthsMax The maximum width of the stretches of each value.
+     * @param patterns The pairs of values that may follow each other, or {@code null} if
+     *        any value may follow any other value.
+     */
+    private static void assertSameSequences(int length, int[] values, int[] widthsMin,
+            int[] widthsMax, int[][] patterns) {
+        var automaton = JUniverseAceProblemAdapter.compileStretch(
+                length, values, widthsMin, widthsMax, patterns);
+        int[] alphabet = Arrays.copyOf(values, values.length + 1);
+        alphabet[values.length] = Arrays.stream(values).max().getAsInt() + 1;
+
+        int[] sequence = new int[length];
+        int[] indexes = new int[length];
+        while (true) {
+            for (int i = 0; i < length; i++) {
+                sequence[i] = alphabet[indexes[i]];
+            }
+            assertEquals(satisfies(sequence, values, widthsMin, widthsMax, patterns),
+                    accepts(automaton, sequence));
+
+            // Moving to the next sequence.
+            int i = length - 1;
+            while ((i >= 0) && (indexes[i] == alphabet.length - 1)) {
+                indexes[i] = 0;
+                i--;
+            }
+            if (i < 0) {
+                return;
+            }
+            indexes[i]++;
+        }
+    }
+
+    /**
+     * Checks whether a sequence satisfies a stretch constraint.
+     *
+     * @param sequence The sequence to check.
+     * @param values The values that may be taken by the variables.
+     * @param widthsMin The minimum width of the stretches of each value.
+     * @param widthsMax The maximum width of the stretches of each value.
+     * @param patterns The pairs of values that may follow each other, or {@code null} if
+     *        any value may follow any other value.
+     *
+     * @return Whether the sequence satisfies the constraint.
+     */
+    private static boolean satisfies(int[] sequence, int[] values, int[] widthsMin,
+            int[] widthsMax, int[][] patterns) {
+        for (int from = 0, to = 0; from < sequence.length; from = to) {
+            while ((to < sequence.length) && (sequence[to] == sequence[from])) {
+                to++;
+            }
+            int i = indexOf(values, sequence[from]);
+            if ((i < 0) || (to - from < widthsMin[i]) || (to - from > widthsMax[i])) {
+                return false;
+            }
+            if ((from > 0) && (patterns != null)
+                    && !isPattern(patterns, sequence[from - 1], sequence[from])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an automaton accepts a sequence.
+     *
+     * @param automaton The automaton to run.
+     * @param sequence The sequence to check.
+     *
+     * @return Whether the automaton accepts the sequence.
+     */
+    private static boolean accepts(Automaton automaton, int[] sequence) {
+        Set<String> states = Set.of(automaton.startState);
+        for (int v : sequence) {
+            Set<String> next = new HashSet<>();
+            for (Transition t : automaton.transitions) {
+                if (states.contains(t.start) && (((Number) t.value).intValue() == v)) {
+                    next.add(t.end);
+                }
+            }
+            states = next;
+        }
+        for (String state : automaton.finalStates) {
+            if (states.contains(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives the index of a value in an array.
+     *
+     * @param values The array to look into.
+     * @param value The value to look for.
+     *
+     * @return The index of the value, or {@code -1} if it does not appear in the array.
+     */
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether a value may follow another one.
+     *
+     * @param patterns The pairs of values that may follow each other.
+     * @param previous The previous value.
+     * @param next The next value.
+     *
+     * @return Whether the pair of values is a pattern.
+     */
+    private static boolean isPattern(int[][] patterns, int previous, int next) {
+        for (int[] pattern : patterns) {
+            if ((pattern[0] == previous) && (pattern[1] == next)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
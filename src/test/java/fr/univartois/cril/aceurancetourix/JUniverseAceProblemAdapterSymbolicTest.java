@@ -0,0 +1,118 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.univartois.cril.juniverse.core.UniverseSolverResult;
+
+/**
+ * The JUniverseAceProblemAdapterSymbolicTest checks that symbolic variables and tables
+ * are encoded and decoded consistently, from their declaration to the solution.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+class JUniverseAceProblemAdapterSymbolicTest {
+
+    /**
+     * The symbols in the domains of the variables.
+     */
+    private static final List<String> COLORS = List.of("red", "green", "blue");
+
+    /**
+     * Checks that the solution of a problem with a symbolic table is one of the tuples
+     * of this table, once decoded.
+     */
+    @Test
+    void testSupportRoundTrip() {
+        var solver = newProblem();
+        List<List<String>> tuples = List.of(List.of("red", "blue"), List.of("blue", "green"));
+        solver.addSupportSymbolic(List.of("x", "y"), tuples);
+        solver.addInstantiationSymbolic("y", "green");
+
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        var solution = solver.mapSymbolicSolution();
+        assertEquals("blue", solution.get("x"));
+        assertEquals("green", solution.get("y"));
+        assertEquals(COLORS.indexOf("blue"), solver.mapSolution().get("x").intValueExact());
+    }
+
+    /**
+     * Checks that a table posted on scopes whose variables have different symbols is
+     * encoded for each of these scopes.
+     */
+    @Test
+    void testTablePostedTwice() {
+        var solver = newProblem();
+        solver.newVariableSymbolic("z", List.of("blue", "green"));
+        List<List<String>> tuples = List.of(List.of("red", "blue"), List.of("green", "green"));
+        solver.addSupportSymbolic(List.of("x", "y"), tuples);
+        solver.addSupportSymbolic(List.of("y", "z"), tuples);
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        var solution = solver.mapSymbolicSolution();
+        assertEquals("green", solution.get("x"));
+        assertEquals("green", solution.get("y"));
+        assertEquals("green", solution.get("z"));
+    }
+
+    /**
+     * Checks that the forbidden tuples of a symbolic table never appear in a solution.
+     */
+    @Test
+    void testConflictsRoundTrip() {
+        var solver = newProblem();
+        List<List<String>> forbidden = new ArrayList<>();
+        for (var c : COLORS) {
+            forbidden.add(List.of(c, c));
+        }
+        solver.addConflictsSymbolic(List.of("x", "y"), forbidden);
+
+        assertEquals(UniverseSolverResult.SATISFIABLE, solver.solve());
+        var solution = solver.mapSymbolicSolution();
+        assertTrue(COLORS.contains(solution.get("x")));
+        assertTrue(COLORS.contains(solution.get("y")));
+        assertNotEquals(solution.get("x"), solution.get("y"));
+    }
+
+    /**
+     * Creates a new problem with two symbolic variables {@code x} and {@code y}, whose
+     * domain is {@link #COLORS}.
+     *
+     * @return The created problem.
+     */
+    private static JUniverseAceProblemAdapter newProblem() {
+        var solver = new JUniverseAceProblemAdapter();
+        solver.newVariableSymbolic("x", COLORS);
+        solver.newVariableSymbolic("y", COLORS);
+        return solver;
+    }
+
+}
@@ -0,0 +1,216 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import fr.univartois.cril.juniverse.csp.operator.UniverseRelationalOperator;
+import fr.univartois.cril.juniverse.csp.operator.UniverseSetBelongingOperator;
+
+/**
+ * The KnapsackBenchmark compares two encodings of a knapsack whose weight must lie
+ * within an interval: a single knapsack constraint with an {@code IN} condition on its
+ * weight, and the two knapsack constraints (one per bound of the interval) that had to
+ * be used before such conditions were supported.
+ * For each random instance, the profit is maximized with both encodings, and the time,
+ * number of nodes and number of revisions of the search are reported.
+ *
+ * The benchmark is run as a standalone program, with the optional arguments
+ * {@code <number of items> <number of instances> <timeout in seconds>}.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class KnapsackBenchmark {
+
+    /**
+     * The maximum weight (and profit) of an item.
+     */
+    private static final int MAX_VALUE = 50;
+
+    /**
+     * The maximum number of copies of an item that can be put in the knapsack.
+     */
+    private static final int MAX_COPIES = 3;
+
+    /**
+     * The number of items of the instances.
+     */
+    private final int nbItems;
+
+    /**
+     * The timeout for solving an instance, in seconds.
+     */
+    private final long timeout;
+
+    /**
+     * Creates a new KnapsackBenchmark.
+     *
+     * @param nbItems The number of items of the instances.
+     * @param timeout The timeout for solving an instance, in seconds.
+     */
+    private KnapsackBenchmark(int nbItems, long timeout) {
+        this.nbItems = nbItems;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The number of items, the number of instances and the timeout (in
+     *        seconds), all optional.
+     */
+    public static void main(String[] args) {
+        int nbItems = (args.length > 0) ? Integer.parseInt(args[0]) : 30;
+        int nbInstances = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+        long timeout = (args.length > 2) ? Long.parseLong(args[2]) : 10;
+        var benchmark = new KnapsackBenchmark(nbItems, timeout);
+
+        // A first run lets the JIT compiler warm up.
+        benchmark.run(-1, true);
+        benchmark.run(-1, false);
+
+        System.out.printf("%-8s %-10s %-14s %10s %12s %14s %10s%n", "seed", "encoding",
+                "result", "time (ms)", "nodes", "revisions", "bound");
+        for (int seed = 0; seed < nbInstances; seed++) {
+            benchmark.run(seed, true).print(seed, "single");
+            benchmark.run(seed, false).print(seed, "two");
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Solves a random instance.
+     *
+     * @param seed The seed used to generate the instance.
+     * @param single Whether the weight is constrained by a single knapsack constraint (or
+     *        by two knapsack constraints).
+     *
+     * @return The measures of the search.
+     */
+    private Measures run(long seed, boolean single) {
+        var random = new Random(seed);
+        List<String> variables = new ArrayList<>(nbItems);
+        List<BigInteger> weights = new ArrayList<>(nbItems);
+        List<BigInteger> profits = new ArrayList<>(nbItems);
+        long total = 0;
+        for (int i = 0; i < nbItems; i++) {
+            variables.add("x" + i);
+            int w = 1 + random.nextInt(MAX_VALUE);
+            weights.add(BigInteger.valueOf(w));
+            profits.add(BigInteger.valueOf(1 + random.nextInt(MAX_VALUE)));
+            total += w * MAX_COPIES;
+        }
+        var min = BigInteger.valueOf(total / 4);
+        var max = BigInteger.valueOf(total / 3);
+
+        var solver = new JUniverseAceProblemAdapter();
+        solver.setTimeout(timeout);
+        for (var x : variables) {
+            solver.newVariable(x, 0, MAX_COPIES);
+        }
+        if (single) {
+            solver.addKnapsack(variables, weights, UniverseSetBelongingOperator.IN, min, max,
+                    profits, UniverseRelationalOperator.GE, BigInteger.ZERO);
+        } else {
+            solver.addKnapsack(variables, weights, UniverseRelationalOperator.GE, min,
+                    profits, UniverseRelationalOperator.GE, BigInteger.ZERO);
+            solver.addKnapsack(variables, weights, UniverseRelationalOperator.LE, max,
+                    profits, UniverseRelationalOperator.GE, BigInteger.ZERO);
+        }
+        solver.maximizeSum(variables, profits);
+
+        long start = System.nanoTime();
+        var result = solver.solve();
+        long time = (System.nanoTime() - start) / 1_000_000;
+        var stats = solver.getHead().getSolver().stats;
+        return new Measures(result.toString(), time, stats.nNodes, stats.nRevisions(),
+                solver.getCurrentBound());
+    }
+
+    /**
+     * The Measures gathers the statistics of the search on an instance.
+     */
+    private static final class Measures {
+
+        /**
+         * The result of the search.
+         */
+        private final String result;
+
+        /**
+         * The time taken by the search (including the construction of the problem), in
+         * milliseconds.
+         */
+        private final long time;
+
+        /**
+         * The number of nodes explored by the search.
+         */
+        private final long nodes;
+
+        /**
+         * The number of revisions performed by the propagators.
+         */
+        private final long revisions;
+
+        /**
+         * The best profit found by the search.
+         */
+        private final BigInteger bound;
+
+        /**
+         * Creates a new Measures.
+         *
+         * @param result The result of the search.
+         * @param time The time taken by the search, in milliseconds.
+         * @param nodes The number of nodes explored by the search.
+         * @param revisions The number of revisions performed by the propagators.
+         * @param bound The best profit found by the search.
+         */
+        private Measures(String result, long time, long nodes, long revisions,
+                BigInteger bound) {
+            this.result = result;
+            this.time = time;
+            this.nodes = nodes;
+            this.revisions = revisions;
+            this.bound = bound;
+        }
+
+        /**
+         * Prints these measures.
+         *
+         * @param seed The seed used to generate the instance.
+         * @param encoding The name of the encoding of the instance.
+         */
+        private void print(long seed, String encoding) {
+            System.out.printf("%-8d %-10s %-14s %10d %12d %14d %10s%n", seed, encoding, result,
+                    time, nodes, revisions, bound);
+        }
+
+    }
+
+}
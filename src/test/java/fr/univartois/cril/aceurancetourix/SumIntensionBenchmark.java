@@ -0,0 +1,255 @@
+/**
+ * Aceurancetourix, the JUniverse adapter for ACE.
+ * Copyright (c) 2022 - Univ Artois, CNRS & Exakis Nelite.
+ * All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library.
+ * If not, see <http://www.gnu.org/licenses>.
+ */
+
+package fr.univartois.cril.aceurancetourix;
+
+import static fr.univartois.cril.juniverse.csp.intension.UniverseIntensionConstraintFactory.binary;
+import static fr.univartois.cril.juniverse.csp.intension.UniverseIntensionConstraintFactory.eq;
+import static fr.univartois.cril.juniverse.csp.intension.UniverseIntensionConstraintFactory.variable;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import fr.univartois.cril.juniverse.csp.intension.IUniverseIntensionConstraint;
+import fr.univartois.cril.juniverse.csp.operator.UniverseArithmeticOperator;
+import fr.univartois.cril.juniverse.csp.operator.UniverseRelationalOperator;
+
+/**
+ * The SumIntensionBenchmark compares the construction of sums of intension terms with
+ * variable coefficients, when posted with
+ * {@link JUniverseAceProblemAdapter#addSumIntensionWithVariableCoefficients(List, List, UniverseRelationalOperator, BigInteger)}
+ * and when encoded manually, with one auxiliary variable and one constraint per term,
+ * and one auxiliary variable and one product constraint per coefficient.
+ * The terms are products of two variables taken from a small pool, so that equal terms
+ * appear in several sums (as in pricing models).
+ * For each encoding, the time needed to build the problem, the memory it uses, and its
+ * numbers of variables and constraints are reported.
+ *
+ * The benchmark is run as a standalone program, with the optional arguments
+ * {@code <number of sums> <number of terms per sum> <number of pool variables>}.
+ *
+ * @author Thibault Falque
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class SumIntensionBenchmark {
+
+    /**
+     * The maximum value of the variables appearing in the terms.
+     */
+    private static final int MAX_VALUE = 9;
+
+    /**
+     * The maximum value of the coefficients.
+     */
+    private static final int MAX_COEFFICIENT = 5;
+
+    /**
+     * The number of sums in the problem.
+     */
+    private final int nbSums;
+
+    /**
+     * The number of terms in each sum.
+     */
+    private final int nbTerms;
+
+    /**
+     * The number of variables from which the terms are built.
+     */
+    private final int nbPool;
+
+    /**
+     * Creates a new SumIntensionBenchmark.
+     *
+     * @param nbSums The number of sums in the problem.
+     * @param nbTerms The number of terms in each sum.
+     * @param nbPool The number of variables from which the terms are built.
+     */
+    private SumIntensionBenchmark(int nbSums, int nbTerms, int nbPool) {
+        this.nbSums = nbSums;
+        this.nbTerms = nbTerms;
+        this.nbPool = nbPool;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The number of sums, the number of terms per sum and the number of
+     *        pool variables, all optional.
+     */
+    public static void main(String[] args) {
+        int nbSums = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+        int nbTerms = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+        int nbPool = (args.length > 2) ? Integer.parseInt(args[2]) : 30;
+        var benchmark = new SumIntensionBenchmark(nbSums, nbTerms, nbPool);
+
+        // A first run lets the JIT compiler warm up.
+        benchmark.run(true);
+        benchmark.run(false);
+
+        System.out.printf("%-10s %10s %12s %12s %14s%n", "encoding", "time (ms)",
+                "memory (kB)", "variables", "constraints");
+        benchmark.run(true).print("native");
+        benchmark.run(false).print("manual");
+        System.exit(0);
+    }
+
+    /**
+     * Builds the problem.
+     *
+     * @param nativeSums Whether the sums are posted with the adapter (or encoded
+     *        manually).
+     *
+     * @return The measures of the construction.
+     */
+    private Measures run(boolean nativeSums) {
+        long before = usedMemory();
+        long start = System.nanoTime();
+        var solver = new JUniverseAceProblemAdapter();
+        for (int i = 0; i < nbPool; i++) {
+            solver.newVariable("x" + i, 0, MAX_VALUE);
+            solver.newVariable("c" + i, 0, MAX_COEFFICIENT);
+        }
+
+        var random = new Random(0);
+        var limit = BigInteger.valueOf(nbTerms * MAX_VALUE * MAX_VALUE * MAX_COEFFICIENT / 2);
+        for (int s = 0; s < nbSums; s++) {
+            List<IUniverseIntensionConstraint> terms = new ArrayList<>(nbTerms);
+            List<String> coefficients = new ArrayList<>(nbTerms);
+            for (int t = 0; t < nbTerms; t++) {
+                terms.add(binary(UniverseArithmeticOperator.MULT,
+                        variable("x" + random.nextInt(nbPool)),
+                        variable("x" + random.nextInt(nbPool))));
+                coefficients.add("c" + random.nextInt(nbPool));
+            }
+
+            if (nativeSums) {
+                solver.addSumIntensionWithVariableCoefficients(terms, coefficients,
+                        UniverseRelationalOperator.LE, limit);
+            } else {
+                addManualSum(solver, s, terms, coefficients, limit);
+            }
+        }
+
+        solver.getHead().getSolver();
+        long time = (System.nanoTime() - start) / 1_000_000;
+        long memory = (usedMemory() - before) / 1024;
+        return new Measures(time, memory, solver.nVariables(), solver.nConstraints());
+    }
+
+    /**
+     * Adds a sum of intension terms with variable coefficients, by introducing one
+     * auxiliary variable per term and one auxiliary variable per product of a term with
+     * its coefficient.
+     *
+     * @param solver The solver to add the sum to.
+     * @param s The index of the sum.
+     * @param terms The terms of the sum.
+     * @param coefficients The variables giving the coefficients of the terms.
+     * @param limit The upper bound of the sum.
+     */
+    private static void addManualSum(JUniverseAceProblemAdapter solver, int s,
+            List<IUniverseIntensionConstraint> terms, List<String> coefficients,
+            BigInteger limit) {
+        List<String> products = new ArrayList<>(terms.size());
+        for (int t = 0; t < terms.size(); t++) {
+            String term = "t" + s + "_" + t;
+            solver.newVariable(term, 0, MAX_VALUE * MAX_VALUE);
+            solver.addIntension(eq(variable(term), terms.get(t)));
+
+            String product = "p" + s + "_" + t;
+            solver.newVariable(product, 0, MAX_VALUE * MAX_VALUE * MAX_COEFFICIENT);
+            solver.addIntension(eq(variable(product), binary(UniverseArithmeticOperator.MULT,
+                    variable(coefficients.get(t)), variable(term))));
+            products.add(product);
+        }
+        solver.addSum(products, UniverseRelationalOperator.LE, limit);
+    }
+
+    /**
+     * Gives the amount of memory currently used by the JVM, after a garbage collection.
+     *
+     * @return The used memory, in bytes.
+     */
+    private static long usedMemory() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The Measures gathers the statistics of the construction of a problem.
+     */
+    private static final class Measures {
+
+        /**
+         * The time taken to build the problem, in milliseconds.
+         */
+        private final long time;
+
+        /**
+         * The memory used by the problem, in kilobytes.
+         */
+        private final long memory;
+
+        /**
+         * The number of variables of the problem.
+         */
+        private final int variables;
+
+        /**
+         * The number of constraints of the problem.
+         */
+        private final int constraints;
+
+        /**
+         * Creates a new Measures.
+         *
+         * @param time The time taken to build the problem, in milliseconds.
+         * @param memory The memory used by the problem, in kilobytes.
+         * @param variables The number of variables of the problem.
+         * @param constraints The number of constraints of the problem.
+         */
+        private Measures(long time, long memory, int variables, int constraints) {
+            this.time = time;
+            this.memory = memory;
+            this.variables = variables;
+            this.constraints = constraints;
+        }
+
+        /**
+         * Prints these measures.
+         *
+         * @param encoding The name of the encoding of the problem.
+         */
+        private void print(String encoding) {
+            System.out.printf("%-10s %10d %12d %12d %14d%n", encoding, time, memory,
+                    variables, constraints);
+        }
+
+    }
+
+}